@@ -0,0 +1,148 @@
+package com.fizzed.blaze.incubating;
+
+import com.fizzed.blaze.util.LineOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the output of "cmd /c set" before and after vcvarsall.bat, for env dumps from a typical developer machine up
+ * to a huge one (e.g. a CI agent exporting every secret and matrix variable), vs. buffering it and splitting it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvVarsParserBenchmark {
+
+    @Param({ "100", "10000" })
+    public int vars;
+
+    private List<byte[]> preChunks;
+    private List<byte[]> postChunks;
+    private String preOutput;
+    private String postOutput;
+    private Map<String,String> preEnv;
+
+    @Setup
+    public void setup() throws IOException {
+        this.preOutput = envDump(this.vars, false);
+        this.postOutput = envDump(this.vars, true);
+        this.preChunks = chunks(this.preOutput);
+        this.postChunks = chunks(this.postOutput);
+        this.preEnv = this.streamed();
+    }
+
+    @Benchmark
+    public Map<String,String> streamed() throws IOException {
+        return parse(new EnvVarsParser(), this.preChunks);
+    }
+
+    @Benchmark
+    public Map<String,String> streamedWithBaseline() throws IOException {
+        return parse(new EnvVarsParser(this.preEnv), this.postChunks);
+    }
+
+    @Benchmark
+    public Map<String,String> bufferedAndSplit() {
+        // how the output was parsed & diffed before it was streamed
+        final Map<String,String> preEnv = splitEnvVars(this.preOutput);
+        final Map<String,String> postEnv = splitEnvVars(this.postOutput);
+
+        final Map<String,String> vcVars = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String,String> entry : postEnv.entrySet()) {
+            final String preValue = preEnv.get(entry.getKey());
+            if (preValue == null) {
+                vcVars.put(entry.getKey(), entry.getValue());
+            } else if (!preValue.equals(entry.getValue())) {
+                vcVars.put(entry.getKey(), preValue + "," + entry.getValue());
+            }
+        }
+        return vcVars;
+    }
+
+    static private Map<String,String> parse(EnvVarsParser parser, List<byte[]> chunks) throws IOException {
+        try (LineOutputStream<EnvVarsParser> output = new LineOutputStream<>(parser)) {
+            for (byte[] chunk : chunks) {
+                output.write(chunk);
+            }
+        }
+        return parser.getEnvVars();
+    }
+
+    static private Map<String,String> splitEnvVars(String output) {
+        final Map<String,String> envVars = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String line : output.split("\n")) {
+            final String[] nv = line.trim().split("=");
+            if (nv.length == 2) {
+                envVars.put(nv[0].trim(), nv[1].trim());
+            }
+        }
+        return envVars;
+    }
+
+    static private List<byte[]> chunks(String output) {
+        // the size a process pipe is typically read in
+        final byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+        final List<byte[]> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += 8192) {
+            chunks.add(Arrays.copyOfRange(bytes, i, Math.min(i + 8192, bytes.length)));
+        }
+        return chunks;
+    }
+
+    static private String envDump(int vars, boolean vcVars) {
+        final StringBuilder sb = new StringBuilder();
+        // hidden per-drive vars are always first
+        sb.append("=C:=C:\\Users\\builder\r\n=ExitCode=00000000\r\n");
+
+        sb.append("Path=");
+        if (vcVars) {
+            sb.append("C:\\Program Files\\Microsoft Visual Studio\\2022\\Community\\VC\\Tools\\MSVC\\14.38.33130\\bin\\HostX64\\x64;");
+        }
+        for (int i = 0; i < 40; i++) {
+            sb.append("C:\\Program Files\\Tool").append(i).append("\\bin;");
+        }
+        sb.append("\r\n");
+
+        for (int i = 0; i < vars; i++) {
+            sb.append("VAR_").append(i).append('=');
+            if (i % 10 == 0) {
+                // e.g. JAVA_TOOL_OPTIONS or connection strings
+                sb.append("-Dkey").append(i).append("=value").append(i).append(" -Dother=1");
+            } else {
+                sb.append("value-").append(i).append("-abcdefghijklmnopqrstuvwxyz");
+            }
+            sb.append("\r\n");
+        }
+
+        if (vcVars) {
+            sb.append("INCLUDE=C:\\Program Files\\Microsoft Visual Studio\\2022\\Community\\VC\\Tools\\MSVC\\14.38.33130\\include\r\n");
+            sb.append("LIB=C:\\Program Files\\Microsoft Visual Studio\\2022\\Community\\VC\\Tools\\MSVC\\14.38.33130\\lib\\x64\r\n");
+            sb.append("VCINSTALLDIR=C:\\Program Files\\Microsoft Visual Studio\\2022\\Community\\VC\\\r\n");
+            sb.append("VSCMD_ARG_TGT_ARCH=x64\r\n");
+        }
+
+        return sb.toString();
+    }
+
+}
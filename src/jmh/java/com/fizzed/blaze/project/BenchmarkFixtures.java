@@ -0,0 +1,110 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.Context;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Fixtures for running the project helpers outside of a blaze script: a bound context, a large readme and a tree of
+ * fake JDK installs.
+ */
+class BenchmarkFixtures {
+
+    static private final String[][] DISTRIBUTIONS = {
+        { "tem", "Eclipse Adoptium" },
+        { "zulu", "Azul Systems, Inc." },
+        { "amzn", "Amazon.com Inc." },
+        { "librca", "BellSoft" },
+        { "graal", "GraalVM Community" },
+    };
+
+    /**
+     * Binds a context to the current thread (see TestContexts), which doesn't log so it won't skew any measurement.
+     */
+    static Context bindContext(Path projectDir) {
+        return TestContexts.bindContext(NOPLogger.NOP_LOGGER, projectDir);
+    }
+
+    /**
+     * A readme like most projects have, with the version in a maven dependency snippet near the top, then lots of
+     * sections of text, code samples, and other versions (e.g. of other dependencies).
+     */
+    static Path writeReadme(Path file, int sections, String version) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("# Example Project by Fizzed\n\n")
+            .append("```xml\n<dependency>\n    <groupId>com.fizzed</groupId>\n    <artifactId>example</artifactId>\n")
+            .append("    <version>").append(version).append("</version>\n</dependency>\n```\n\n");
+
+        for (int i = 0; i < sections; i++) {
+            sb.append("## Section ").append(i).append("\n\n")
+                .append("Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut ")
+                .append("labore et dolore magna aliqua. Works with version ").append(version).append(" or later.\n\n")
+                .append("```java\nfinal Example example = new Example(\"").append(i).append("\");\n")
+                .append("example.run(1x2y3, \"other-lib:4.5.").append(i).append("\");\n```\n\n")
+                .append("```xml\n<dependency>\n    <groupId>org.example</groupId>\n    <artifactId>other-lib</artifactId>\n")
+                .append("    <version>4.5.").append(i).append("</version>\n</dependency>\n```\n\n");
+        }
+
+        Files.createDirectories(file.getParent());
+        Files.write(file, sb.toString().getBytes());
+        return file;
+    }
+
+    /**
+     * Fake JDK installs (a release file and bin/java) of every major version, from a mix of distributions, laid out
+     * like sdkman does under the user home.
+     */
+    static Path createFakeJdks(Path userHome, int installsPerVersion, int... majorVersions) throws IOException {
+        final Path candidatesDir = userHome.resolve(".sdkman/candidates/java");
+        for (int majorVersion : majorVersions) {
+            for (int i = 0; i < installsPerVersion; i++) {
+                final String[] distribution = DISTRIBUTIONS[i % DISTRIBUTIONS.length];
+                final String version = majorVersion == 8 ? "8.0." + (400 - i) : majorVersion + ".0." + (20 - (i % 20));
+                final Path jdkDir = candidatesDir.resolve(version + "." + i + "-" + distribution[0]);
+                final Path binDir = jdkDir.resolve("bin");
+                Files.createDirectories(binDir);
+
+                final String javaVersion = majorVersion == 8 ? "1.8.0_" + (400 - i) : version;
+                Files.write(jdkDir.resolve("release"), ("IMPLEMENTOR=\"" + distribution[1] + "\"\n"
+                    + "JAVA_RUNTIME_VERSION=\"" + javaVersion + "+9\"\n"
+                    + "JAVA_VERSION=\"" + javaVersion + "\"\n"
+                    + "LIBC=\"gnu\"\n"
+                    + "OS_ARCH=\"x86_64\"\n"
+                    + "OS_NAME=\"Linux\"\n"
+                    + "IMAGE_TYPE=\"JDK\"\n").getBytes());
+
+                final Path javaExe = binDir.resolve("java");
+                Files.write(javaExe, ("#!/bin/sh\necho 'openjdk version \"" + javaVersion + "\"' 1>&2\n").getBytes());
+                try {
+                    Files.setPosixFilePermissions(javaExe, PosixFilePermissions.fromString("rwxr-xr-x"));
+                } catch (UnsupportedOperationException e) {
+                    // e.g. windows
+                }
+            }
+        }
+        return candidatesDir;
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.buildx.Target;
+import com.fizzed.jne.JavaHome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDK discovery and the target lists built from it, against a generated tree of many fake JDK installs (laid out like
+ * sdkman in a fake user home). Setup fails if any JDK found is not one of the fake installs, rather than silently
+ * measuring the installs of the machine running it. A new blaze is used per invocation for the uncached searches, and
+ * a warmed up one for the cached ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaHomesBenchmark {
+
+    static private final int[] VERSIONS = { 25, 21, 17, 11, 8 };
+
+    @Param({ "1", "10", "50" })
+    public int installsPerVersion;
+
+    private Path projectDir;
+    private String userHome;
+    private BaseBlaze cachedBlaze;
+
+    @Setup
+    public void setup() throws IOException {
+        this.projectDir = Files.createTempDirectory("java-homes-benchmark");
+        final Path fakeUserHome = this.projectDir.resolve("home");
+        final Path candidatesDir = BenchmarkFixtures.createFakeJdks(fakeUserHome, this.installsPerVersion, VERSIONS);
+
+        this.userHome = System.getProperty("user.home");
+        System.setProperty("user.home", fakeUserHome.toString());
+
+        BenchmarkFixtures.bindContext(this.projectDir);
+        this.cachedBlaze = new BaseBlaze();
+
+        // the finder is assumed to search sdkman under "user.home", but it also searches system-wide dirs (e.g.
+        // /usr/lib/jvm) and may prefer those installs, so make sure every version is one of the fake ones
+        final List<JavaHome> javaHomes = this.cachedBlaze.findJavaHomes(VERSIONS);
+        for (JavaHome javaHome : javaHomes) {
+            if (!javaHome.getDirectory().toAbsolutePath().startsWith(candidatesDir.toAbsolutePath())) {
+                throw new IllegalStateException("Found JDK " + javaHome.getDirectory() + " outside of the fake"
+                    + " installs in " + candidatesDir + " (the benchmark would measure the installs of this machine)");
+            }
+        }
+        if (javaHomes.size() != VERSIONS.length) {
+            throw new IllegalStateException("Only found " + javaHomes.size() + " of " + VERSIONS.length
+                + " JDK versions in the fake installs in " + candidatesDir);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setProperty("user.home", this.userHome);
+        BenchmarkFixtures.deleteRecursively(this.projectDir);
+    }
+
+    @Benchmark
+    public Optional<JavaHome> findJavaHome() {
+        return new BaseBlaze().findJavaHome(17);
+    }
+
+    @Benchmark
+    public List<JavaHome> findJavaHomes() {
+        return new BaseBlaze().findJavaHomes(VERSIONS);
+    }
+
+    @Benchmark
+    public List<JavaHome> findJavaHomesCached() {
+        return this.cachedBlaze.findJavaHomes(VERSIONS);
+    }
+
+    @Benchmark
+    public List<Target> crossJdkTestTargets() {
+        return new BaseBlaze().crossJdkTestTargets();
+    }
+
+    @Benchmark
+    public List<Target> crossJdkTestTargetsCached() {
+        return this.cachedBlaze.crossJdkTestTargets();
+    }
+
+    @Benchmark
+    public List<Target> crossHostTestTargets() {
+        return this.cachedBlaze.crossHostTestTargets();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.fizzed.blaze.project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Updating the version in a readme, from a small one to a huge one. The latest version alternates between two, so every
+ * invocation really rewrites the file (without a git repo to get it from).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateFileWithLatestVersionBenchmark {
+
+    static public class AlternatingVersionBlaze extends BaseBlaze {
+
+        private long count;
+
+        @Override
+        protected String detectLatestVersion() {
+            return this.count++ % 2 == 0 ? "1.2.4" : "1.2.3";
+        }
+
+    }
+
+    @Param({ "10", "1000", "100000" })
+    public int sections;
+
+    private Path projectDir;
+    private Path readme;
+    private List<String> lines;
+    private Pattern versionLocatorPattern;
+    private AlternatingVersionBlaze blaze;
+
+    @Setup
+    public void setup() throws IOException {
+        this.projectDir = Files.createTempDirectory("update-file-benchmark");
+        this.readme = BenchmarkFixtures.writeReadme(this.projectDir.resolve("README.md"), this.sections, "1.2.3");
+        this.lines = Files.readAllLines(this.readme);
+        this.versionLocatorPattern = Pattern.compile("<version>(.*)</version>");
+        BenchmarkFixtures.bindContext(this.projectDir);
+        this.blaze = new AlternatingVersionBlaze();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(this.projectDir);
+    }
+
+    @Benchmark
+    public void updateFileWithLatestVersion() throws IOException {
+        this.blaze.updateFileWithLatestVersion(this.readme);
+    }
+
+    @Benchmark
+    public String findVersion() {
+        return BaseBlaze.findVersion(this.lines, this.versionLocatorPattern);
+    }
+
+}
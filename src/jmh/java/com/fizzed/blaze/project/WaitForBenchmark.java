@@ -0,0 +1,73 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.core.MessageOnlyException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waiting for something that is confirmed on a given attempt, or never is, where only the sleeps between attempts
+ * should count (e.g. a single attempt that fails should return right away).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class WaitForBenchmark {
+
+    @Param({ "1", "3" })
+    public int attempts;
+
+    @Param({ "10" })
+    public long waitTime;
+
+    private Path projectDir;
+    private BaseBlaze blaze;
+
+    @Setup
+    public void setup() throws IOException {
+        this.projectDir = Files.createTempDirectory("wait-for-benchmark");
+        BenchmarkFixtures.bindContext(this.projectDir);
+        this.blaze = new BaseBlaze();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(this.projectDir);
+    }
+
+    @Benchmark
+    public int confirmedOnLastAttempt() {
+        final int[] count = new int[1];
+        this.blaze.waitFor("confirmed", this.attempts, this.waitTime, () -> ++count[0] >= this.attempts);
+        return count[0];
+    }
+
+    @Benchmark
+    public int neverConfirmed() {
+        final int[] count = new int[1];
+        try {
+            this.blaze.waitFor("never confirmed", this.attempts, this.waitTime, () -> ++count[0] < 0);
+        } catch (MessageOnlyException e) {
+            // expected
+        }
+        return count[0];
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.fizzed.blaze.incubating;
+
+import com.fizzed.blaze.util.LineOutputStream;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parses NAME=VALUE lines (e.g. the output of "cmd /c set" or "env") as they are streamed from a process. If a
+ * baseline is provided, only the variables that are new or changed vs. the baseline are kept, so the diff is
+ * computed in the same pass.
+ */
+public class EnvVarsParser implements LineOutputStream.Processor {
+
+    private final Map<String,String> baseline;
+    private final Map<String,String> envVars;
+
+    public EnvVarsParser() {
+        this(null);
+    }
+
+    public EnvVarsParser(Map<String,String> baseline) {
+        // windows env var names are case-insensitive (e.g. Path vs PATH), whatever map the baseline came in
+        if (baseline != null) {
+            this.baseline = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.baseline.putAll(baseline);
+        } else {
+            this.baseline = null;
+        }
+        this.envVars = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    /**
+     * The parsed variables, or if a baseline was provided, the new variables and changed ones (as the baseline value
+     * and new value separated by a comma).
+     */
+    public Map<String,String> getEnvVars() {
+        return envVars;
+    }
+
+    @Override
+    public void process(String line) {
+        // only the first "=" separates the name, values may contain more of them; names starting with "=" are the
+        // hidden per-drive vars of cmd.exe (e.g. =C:=C:\foo) and are skipped
+        final int equalsPos = line.indexOf('=');
+        if (equalsPos <= 0) {
+            return;
+        }
+
+        final String name = line.substring(0, equalsPos).trim();
+        final String value = line.substring(equalsPos + 1).trim();
+        if (name.isEmpty() || value.isEmpty()) {
+            return;
+        }
+
+        if (this.baseline == null) {
+            this.envVars.put(name, value);
+        } else {
+            final String baselineValue = this.baseline.get(name);
+            if (baselineValue == null) {
+                this.envVars.put(name, value);
+            } else if (!baselineValue.equals(value)) {
+                this.envVars.put(name, baselineValue + "," + value);
+            }
+        }
+    }
+
+}
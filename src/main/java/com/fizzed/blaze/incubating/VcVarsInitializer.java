@@ -5,6 +5,7 @@ import com.fizzed.blaze.Systems;
 import com.fizzed.blaze.core.Action;
 import com.fizzed.blaze.core.BlazeException;
 import com.fizzed.blaze.core.VerbosityMixin;
+import com.fizzed.blaze.util.Streamables;
 import com.fizzed.blaze.util.VerboseLogger;
 
 import java.nio.file.Files;
@@ -13,7 +14,6 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import static com.fizzed.blaze.Systems.exec;
@@ -72,38 +72,24 @@ public class VcVarsInitializer extends Action<VcVarsInitializer.Result,VcVars> i
             throw new IllegalStateException("Could not find vcvarsall.bat for years " + this.preferredYears);
         }
 
-        // get a snapshot of variables before running vcvarsall.bat
-        final String preEnvOutput = exec("cmd", "/c", "set")
-            .runCaptureOutput(false)
-            .toString();
+        // get a snapshot of variables before running vcvarsall.bat (parsed as its streamed, not buffered)
+        final EnvVarsParser preEnvParser = new EnvVarsParser();
+        exec("cmd", "/c", "set")
+            .pipeOutput(Streamables.lineOutput(preEnvParser))
+            .run();
 
-        // parse the before list into a map
-        final Map<String,String> preEnv = parseEnvVars(preEnvOutput);
+        final Map<String,String> preEnv = preEnvParser.getEnvVars();
 
         // now call vcvarsall.bat, grab the adjusted env vars
         log.info("Loading visual studio variables for {} from {}", vcVarsArch, vcVarsAllBatFile);
 
-        final String postEnvOutput = exec("cmd", "/c", "\"call \"" + vcVarsAllBatFile + "\" " + vcVarsArch + " & set\"")
-            .runCaptureOutput(false)
-            .toString();
-
-        // parse the after list into a map
-        final Map<String,String> postEnv = parseEnvVars(postEnvOutput);
-
-        // calculate changes
-        final Map<String,String> vcVars = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        for (Map.Entry<String,String> afterEntry : postEnv.entrySet()) {
-            String envBeforeValue = preEnv.get(afterEntry.getKey());
-            if (envBeforeValue == null) {
-                //log.info("NEW env: {} => {}",  afterEntry.getKey(), afterEntry.getValue());
-                vcVars.put(afterEntry.getKey(), afterEntry.getValue());
-            } else if (!envBeforeValue.equals(afterEntry.getValue())) {
-                //log.info("CHANGED env: {} => {}",  afterEntry.getKey(), afterEntry.getValue());
-                vcVars.put(afterEntry.getKey(), envBeforeValue + "," + afterEntry.getValue());
-            } else {
-                //log.info("SAME env: {} => {}",  afterEntry.getKey(), afterEntry.getValue());
-            }
-        }
+        // the after list is diffed against the before list as its parsed
+        final EnvVarsParser postEnvParser = new EnvVarsParser(preEnv);
+        exec("cmd", "/c", "\"call \"" + vcVarsAllBatFile + "\" " + vcVarsArch + " & set\"")
+            .pipeOutput(Streamables.lineOutput(postEnvParser))
+            .run();
+
+        final Map<String,String> vcVars = postEnvParser.getEnvVars();
 
         log.verbose("Detected {} environment variables we will inject to every vcVarsExec() call", vcVars.size());
 
@@ -138,22 +124,6 @@ public class VcVarsInitializer extends Action<VcVarsInitializer.Result,VcVars> i
         return new Result(this, v);
     }
 
-    static private Map<String,String> parseEnvVars(String output) {
-        final Map<String,String> envVars = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-
-        for (String line : output.split("\n")) {
-            String[] nv = line.trim().split("=");
-            if (nv.length == 2) {
-                String name = nv[0].trim();
-                String value = nv[1].trim();
-                //log.info("{} => {}", name, value);
-                envVars.put(name, value);
-            }
-        }
-
-        return envVars;
-    }
-
     static private String resolveTargetArch(String targetArch) {
         // arch can be a few things, that we need to match
         final String hostArch = System.getProperty("os.arch");              // x86_64 or aarch64
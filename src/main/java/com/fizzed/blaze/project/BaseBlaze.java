@@ -15,16 +15,30 @@ import org.slf4j.Logger;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.fizzed.blaze.Contexts.fail;
@@ -33,6 +47,10 @@ import static com.fizzed.blaze.Systems.rm;
 import static com.fizzed.blaze.util.TerminalHelper.fixedWidthCenter;
 import static com.fizzed.blaze.util.TerminalHelper.fixedWidthLeft;
 import static com.fizzed.buildx.prepare.PrepareHostForContainerRecipes.copyMavenSettings;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.joining;
 
@@ -46,6 +64,20 @@ public class BaseBlaze {
         return Contexts.withBaseDir("..").toAbsolutePath().normalize();
     }
 
+    // blocking work that fans out (e.g. execs per container, host or recording) runs on virtual threads (jdk 21+) or a
+    // bounded pool
+
+    protected int maxPlatformThreads() {
+        return 16;
+    }
+
+    protected BlockingExecutor newBlockingExecutor() {
+        // callers close it once done (e.g. try-with-resources), so no threads outlive the task
+        final BlockingExecutor blockingExecutor = new BlockingExecutor(this.maxPlatformThreads());
+        log.debug("Using {} for blocking work", blockingExecutor.isVirtual() ? "virtual threads" : "up to " + this.maxPlatformThreads() + " platform threads");
+        return blockingExecutor;
+    }
+
     // cdn or dl publishing
 
     private Path locateCdndlProjectDir() {
@@ -122,27 +154,20 @@ public class BaseBlaze {
     }
 
     protected void updateFileWithLatestVersion(Path file, String versionLocator) throws IOException {
-        final Path newFile = file.resolveSibling(file.getFileName() + ".new");
-
         final String latestVersion = this.detectLatestVersion();
 
         log.info("Detected latest version (from repo): {}", latestVersion);
 
-        // find current version in readme using a regex to match
-        final Pattern versionLocatorPattern = Pattern.compile(versionLocator);
-        final AtomicReference<String> fileVersionRef = new AtomicReference<>();
-        try (Stream<String> lines = Files.lines(file)) {
-            lines.forEach(line -> {
-                if (fileVersionRef.get() == null) {
-                    Matcher matcher = versionLocatorPattern.matcher(line);
-                    if (matcher.find()) {
-                        fileVersionRef.set(matcher.group(1));
-                    }
-                }
-            });
-        }
+        this.updateFileWithVersion(file, versionLocator, latestVersion);
+    }
 
-        final String fileVersion = fileVersionRef.get();
+    protected void updateFileWithVersion(Path file, String versionLocator, String version) throws IOException {
+        final Path newFile = file.resolveSibling(file.getFileName() + ".new");
+
+        // read the file only once, then find current version in it using a regex to match
+        final List<String> lines = Files.readAllLines(file);
+        final Pattern versionLocatorPattern = Pattern.compile(versionLocator);
+        final String fileVersion = findVersion(lines, versionLocatorPattern);
 
         if (fileVersion == null) {
             log.error("No version found in " + file + " from regex " + versionLocatorPattern);
@@ -151,20 +176,12 @@ public class BaseBlaze {
 
         log.info("Detected version (in {}): {}", file, fileVersion);
 
-        // replace version in file and write a new version
-        final Pattern versionPattern = Pattern.compile(fileVersion);
+        // replace version in file and write a new version (a literal replace, the dots in a version like 1.2.3 are
+        // not regex wildcards that could match other text)
         try (BufferedWriter writer = Files.newBufferedWriter(newFile)) {
-            try (Stream<String> lines = Files.lines(file)) {
-                lines.forEach(line -> {
-                    Matcher matcher = versionPattern.matcher(line);
-                    String newLine = matcher.replaceAll(latestVersion);
-                    try {
-                        writer.append(newLine);
-                        writer.append("\n");
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                });
+            for (String line : lines) {
+                writer.append(line.replace(fileVersion, version));
+                writer.append("\n");
             }
             writer.flush();
         }
@@ -172,6 +189,16 @@ public class BaseBlaze {
         Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING);
     }
 
+    static protected String findVersion(List<String> lines, Pattern versionLocatorPattern) {
+        for (String line : lines) {
+            final Matcher matcher = versionLocatorPattern.matcher(line);
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
     // these are helpers for containers
 
     private String containerExe = null;
@@ -222,7 +249,10 @@ public class BaseBlaze {
                     log.info("Confirmed {} (in {} ms)", description, (System.currentTimeMillis() - now));
                     return;
                 }
-                Thread.sleep(waitTime);
+                // no point in waiting after the last attempt
+                if (i < limit - 1) {
+                    Thread.sleep(waitTime);
+                }
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
@@ -265,22 +295,32 @@ public class BaseBlaze {
         return minVersion;
     }
 
-    protected void mvnTestOnJdks(int... jdkVersions) throws Exception {
-        final String jdkVersionStr = Arrays.stream(jdkVersions).mapToObj(Integer::toString).collect(joining(", "));
-        final long start = System.currentTimeMillis();
-        final List<JavaHome> javaHomes = new ArrayList<>();
-        for (final int jdkVersion : jdkVersions) {
-            final JavaHome jdkHome = new JavaHomeFinder()
+    private final Map<Integer,Optional<JavaHome>> javaHomesByVersion = new ConcurrentHashMap<>();
+
+    protected Optional<JavaHome> findJavaHome(int jdkVersion) {
+        // every search scans the disk for installs, but they won't change during a run (e.g. the "watch" task or
+        // "cross_tests" searching for the same versions again)
+        Optional<JavaHome> jdkHome = this.javaHomesByVersion.get(jdkVersion);
+        if (jdkHome == null) {
+            jdkHome = new JavaHomeFinder()
                 .jdk()
                 .version(jdkVersion)
                 .preferredDistributions()
                 .sorted()
-                .tryFind()
-                .orElse(null);
+                .tryFind();
+            this.javaHomesByVersion.putIfAbsent(jdkVersion, jdkHome);
+        }
+        return jdkHome;
+    }
 
-            if (jdkHome != null) {
-                javaHomes.add(jdkHome);
-            }
+    protected List<JavaHome> findJavaHomes(int... jdkVersions) {
+        final String jdkVersionStr = Arrays.stream(jdkVersions).mapToObj(Integer::toString).collect(joining(", "));
+        final long start = System.currentTimeMillis();
+        // searched one after the other, since nothing says JavaHomeFinder is safe to use concurrently (they all scan
+        // the same dirs anyway) and any repeat search is cached
+        final List<JavaHome> javaHomes = new ArrayList<>();
+        for (int jdkVersion : jdkVersions) {
+            this.findJavaHome(jdkVersion).ifPresent(javaHomes::add);
         }
 
         log.info("");
@@ -294,6 +334,13 @@ public class BaseBlaze {
             fail("No JDKs found matching versions " + jdkVersionStr);
         }
 
+        return javaHomes;
+    }
+
+    protected void mvnTestOnJdks(int... jdkVersions) throws Exception {
+        final String jdkVersionStr = Arrays.stream(jdkVersions).mapToObj(Integer::toString).collect(joining(", "));
+        final List<JavaHome> javaHomes = this.findJavaHomes(jdkVersions);
+
         for (JavaHome javaHome : javaHomes) {
             // this is enough to ensure maven uses the provided JDK
             try {
@@ -337,47 +384,457 @@ public class BaseBlaze {
             .run();
     }
 
-    protected void mvnRelease() throws Exception {
-        this.mvnCommandsWithJdk(this.minimumSupportedJavaVersion(),
-            "clean", "release:prepare", "release:perform");
+    // helpers for watching project sources & incrementally re-running affected tests
+
+    protected long watchDebounceMillis() {
+        return 300L;
     }
 
-    protected void mvnReleaseWithNoTests() throws Exception {
-        this.mvnCommandsWithJdk(this.minimumSupportedJavaVersion(),
-            "clean", "-DskipTests", "-Darguments=-DskipTests", "release:prepare", "release:perform");
+    protected List<Path> watchSourceDirs() throws IOException {
+        // the "src" dir of this project and any maven modules nested in it (skipping build & hidden dirs)
+        try (Stream<Path> paths = Files.walk(this.projectDir, 4)) {
+            return paths
+                .filter(p -> p.getFileName().toString().equals("src") && Files.isDirectory(p))
+                .filter(p -> Files.exists(p.resolveSibling("pom.xml")))
+                .filter(p -> {
+                    for (Path name : this.projectDir.relativize(p)) {
+                        if (name.toString().startsWith(".") || name.toString().equals("target")) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+        }
     }
 
-    protected List<Target> crossJdkTestTargets() {
-        // dynamically build the target list
-        final int[] javaVersions = this.supportedJavaVersions();
-        final String jdkVersionStr = Arrays.stream(javaVersions).mapToObj(Integer::toString).collect(joining(", "));
-        final long start = System.currentTimeMillis();
-        final List<JavaHome> javaHomes = new ArrayList<>();
-        for (final int javaVersion : javaVersions) {
-            final JavaHome jdkHome = new JavaHomeFinder()
-                .jdk()
-                .version(javaVersion)
-                .preferredDistributions()
-                .sorted()
-                .tryFind()
-                .orElse(null);
+    protected void mvnWatchTests(List<JavaHome> javaHomes) throws Exception {
+        final List<Path> srcDirs = this.watchSourceDirs();
 
-            if (jdkHome != null) {
-                javaHomes.add(jdkHome);
+        if (srcDirs.isEmpty()) {
+            fail("No source dirs found to watch in " + this.projectDir);
+        }
+
+        // the maven daemon keeps a warm jvm (per JAVA_HOME) between runs, otherwise a plain maven starts a cold jvm on
+        // every run; surefire still forks a jvm for the tests unless they are run in-process (e.g. --in-process)
+        final boolean warmJvm = Systems.which("mvnd").run() != null;
+        final String mvnExe = warmJvm ? "mvnd" : "mvn";
+        final boolean inProcess = warmJvm && this.config.flag("in-process").orElse(false);
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            for (Path srcDir : srcDirs) {
+                this.watchRegisterAll(watchService, srcDir);
+            }
+
+            log.info("");
+            log.info("Watching {} for changes (using {}, debounce {} ms), ctrl-c to quit...", srcDirs, mvnExe, this.watchDebounceMillis());
+            if (!warmJvm) {
+                log.warn("No 'mvnd' found on PATH, so every run starts a cold JVM (install mvnd to keep one warm)");
+            }
+            if (inProcess) {
+                log.warn("Tests run in-process in the mvnd JVM: the surefire argLine (e.g. --add-opens, javaagents like"
+                    + " jacoco or mockito-inline) is ignored and static state or System.exit() leaks into the daemon");
+            }
+            log.info("");
+
+            while (true) {
+                final Set<Path> changedFiles = this.watchTakeChanges(watchService);
+                if (changedFiles.isEmpty()) {
+                    continue;
+                }
+
+                // latency is measured from the most recent save we know about
+                long savedAt = 0L;
+                for (Path changedFile : changedFiles) {
+                    if (Files.exists(changedFile)) {
+                        savedAt = Math.max(savedAt, Files.getLastModifiedTime(changedFile).toMillis());
+                    }
+                }
+                if (savedAt <= 0L) {
+                    savedAt = System.currentTimeMillis();
+                }
+
+                final Set<String> testClasses = watchAffectedTests(srcDirs, changedFiles);
+
+                log.info("Detected {} changed file(s), will run {}", changedFiles.size(),
+                    testClasses != null ? "tests " + testClasses : "all tests");
+
+                final List<Object> arguments = new ArrayList<>(asList("test", "-DfailIfNoTests=false", "-Dsurefire.failIfNoSpecifiedTests=false"));
+                if (testClasses != null) {
+                    arguments.add("-Dtest=" + String.join(",", testClasses));
+                }
+                if (inProcess) {
+                    arguments.add("-DforkCount=0");
+                }
+
+                for (JavaHome javaHome : javaHomes) {
+                    // NOTE: jdks run one after the other since they all share the same target dir
+                    final int exitValue = (int)exec(mvnExe, arguments.toArray())
+                        .workingDir(this.projectDir)
+                        .env("JAVA_HOME", javaHome.getDirectory().toString())
+                        .exitValuesAny()
+                        .verbose()
+                        .run();
+
+                    if (exitValue == 0) {
+                        log.info("Tests passed on JDK {} (in {} ms since save)", javaHome.getVersion().getMajor(), (System.currentTimeMillis()-savedAt));
+                    } else {
+                        log.error("Tests failed on JDK {} (in {} ms since save)", javaHome.getVersion().getMajor(), (System.currentTimeMillis()-savedAt));
+                    }
+                }
+
+                log.info("");
+                log.info("Watching for changes, ctrl-c to quit...");
+                log.info("");
             }
         }
+    }
 
-        log.info("");
-        log.info("Detected JDKs for {} (in {} ms)", jdkVersionStr, (System.currentTimeMillis()-start));
+    static protected Set<String> watchAffectedTests(List<Path> srcDirs, Set<Path> changedFiles) throws IOException {
+        final Set<String> testClasses = new TreeSet<>();
+        final Set<String> changedClasses = new TreeSet<>();
+
+        for (Path changedFile : changedFiles) {
+            final String fileName = changedFile.getFileName().toString();
+
+            // a resource (or anything not java) could impact any test
+            if (!fileName.endsWith(".java")) {
+                return null;
+            }
+
+            final String className = fileName.substring(0, fileName.length()-".java".length());
+            if (srcDirs.stream().anyMatch(d -> changedFile.startsWith(d.resolve("test")))) {
+                if (isTestClassName(className)) {
+                    testClasses.add(className);
+                }
+            } else {
+                changedClasses.add(className);
+            }
+        }
+
+        if (!changedClasses.isEmpty()) {
+            // a class using a changed class is affected too (e.g. BarTest only names Bar, which uses the changed Foo),
+            // so main classes referencing any affected class are added until there are no more
+            final Map<String,String> mainSources = new LinkedHashMap<>();
+            for (Path srcDir : srcDirs) {
+                final Path mainJavaDir = srcDir.resolve("main").resolve("java");
+                if (!Files.isDirectory(mainJavaDir)) {
+                    continue;
+                }
+                try (Stream<Path> paths = Files.walk(mainJavaDir)) {
+                    for (Path mainFile : paths.filter(p -> p.getFileName().toString().endsWith(".java")).collect(Collectors.toList())) {
+                        final String fileName = mainFile.getFileName().toString();
+                        mainSources.put(fileName.substring(0, fileName.length()-".java".length()),
+                            new String(Files.readAllBytes(mainFile), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            boolean added = true;
+            while (added) {
+                added = false;
+                final Pattern referencePattern = Pattern.compile("\\b(" + String.join("|", changedClasses) + ")\\b");
+                for (Map.Entry<String,String> mainSource : mainSources.entrySet()) {
+                    if (!changedClasses.contains(mainSource.getKey()) && referencePattern.matcher(mainSource.getValue()).find()) {
+                        changedClasses.add(mainSource.getKey());
+                        added = true;
+                    }
+                }
+            }
+
+            // any test referencing an affected class by name is affected (which covers FooTest for Foo too)
+            final Pattern referencePattern = Pattern.compile("\\b(" + String.join("|", changedClasses) + ")\\b");
+            for (Path srcDir : srcDirs) {
+                final Path testJavaDir = srcDir.resolve("test").resolve("java");
+                if (!Files.isDirectory(testJavaDir)) {
+                    continue;
+                }
+                final List<Path> testFiles;
+                try (Stream<Path> paths = Files.walk(testJavaDir)) {
+                    testFiles = paths
+                        .filter(p -> p.getFileName().toString().endsWith(".java"))
+                        .collect(Collectors.toList());
+                }
+                for (Path testFile : testFiles) {
+                    final String fileName = testFile.getFileName().toString();
+                    final String testClassName = fileName.substring(0, fileName.length()-".java".length());
+                    if (isTestClassName(testClassName) && !testClasses.contains(testClassName)) {
+                        final String source = new String(Files.readAllBytes(testFile), StandardCharsets.UTF_8);
+                        if (referencePattern.matcher(source).find()) {
+                            testClasses.add(testClassName);
+                        }
+                    }
+                }
+            }
+        }
+
+        // if nothing could be mapped, its safest to run everything
+        return testClasses.isEmpty() ? null : testClasses;
+    }
+
+    static private boolean isTestClassName(String className) {
+        // the default surefire includes
+        return className.startsWith("Test") || className.endsWith("Test") || className.endsWith("Tests") || className.endsWith("TestCase");
+    }
+
+    private void watchRegisterAll(WatchService watchService, Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.filter(Files::isDirectory).collect(Collectors.toList())) {
+                p.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            }
+        }
+    }
+
+    static private boolean isWatchedFileName(String fileName) {
+        // skips editor swap & backup files
+        return !fileName.startsWith(".") && !fileName.endsWith("~");
+    }
+
+    private Set<Path> watchTakeChanges(WatchService watchService) throws IOException, InterruptedException {
+        final Set<Path> changedFiles = new LinkedHashSet<>();
+
+        // block for the first change, then keep draining until things are quiet for the debounce period (an editor
+        // or "git checkout" usually touches many files in a burst)
+        WatchKey key = watchService.take();
+        while (key != null) {
+            final Path dir = (Path)key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    continue;
+                }
+                final Path file = dir.resolve((Path)event.context());
+                final String fileName = file.getFileName().toString();
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(file)) {
+                    this.watchRegisterAll(watchService, file);
+                    // files may already be in it before it was registered (e.g. "git checkout" or a new package)
+                    try (Stream<Path> paths = Files.walk(file)) {
+                        paths.filter(Files::isRegularFile)
+                            .filter(p -> isWatchedFileName(p.getFileName().toString()))
+                            .forEach(changedFiles::add);
+                    }
+                } else if (isWatchedFileName(fileName)) {
+                    changedFiles.add(file);
+                }
+            }
+            key.reset();
+            key = watchService.poll(this.watchDebounceMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return changedFiles;
+    }
+
+    // helpers for profiling tests with flight recorder
+
+    protected void mvnProfileTests(List<JavaHome> javaHomes) throws Exception {
+        final Path profileDir = this.projectDir.resolve("target").resolve("profile-tests");
+
+        // recordings are parsed with the "jfr" tool (jdk 14+), which can come from any of the jdks
+        Path jfrExe = null;
         for (JavaHome javaHome : javaHomes) {
-            log.info("  {}", javaHome);
+            final Path binDir = javaHome.getDirectory().resolve("bin");
+            for (String name : asList("jfr", "jfr.exe")) {
+                if (jfrExe == null && Files.isRegularFile(binDir.resolve(name))) {
+                    jfrExe = binDir.resolve(name);
+                }
+            }
+        }
+
+        if (jfrExe == null) {
+            fail("Unable to find a 'jfr' tool in any of the JDKs (requires JDK 14+) to parse the recordings with");
+        }
+
+        // compile once on the oldest jdk (so it runs on all of them), every jdk then runs the exact same bytecode
+        JavaHome compileJavaHome = javaHomes.get(0);
+        for (JavaHome javaHome : javaHomes) {
+            if (javaHome.getVersion().getMajor() < compileJavaHome.getVersion().getMajor()) {
+                compileJavaHome = javaHome;
+            }
+        }
+
+        exec("mvn", "clean", "test-compile")
+            .workingDir(this.projectDir)
+            .env("JAVA_HOME", compileJavaHome.getDirectory().toString())
+            .verbose()
+            .run();
+
+        // the flight recorder is appended to any argLine the project already sets (e.g. memory flags, --add-opens)
+        final String projectArgLine = this.mvnEvaluate("argLine");
+        if (projectArgLine != null) {
+            log.info("Detected project argLine: {}", projectArgLine);
         }
+
+        final Map<String,JfrSummary> summaries = new LinkedHashMap<>();
+        for (JavaHome javaHome : javaHomes) {
+            final String name = "jdk-" + javaHome.getVersion().getMajor();
+
+            if (javaHome.getVersion().getMajor() < 11) {
+                log.warn("Skipping {} (flight recorder is only reliably available on JDK 11+)", javaHome);
+                continue;
+            }
+
+            // a directory as the filename gets a uniquely named recording for every jvm surefire forks
+            final Path recordingDir = profileDir.resolve(name);
+            Files.createDirectories(recordingDir);
+
+            final String argLine = (projectArgLine != null ? projectArgLine + " " : "")
+                + "-XX:StartFlightRecording=settings=profile,dumponexit=true,filename=" + recordingDir;
+
+            final int exitValue = (int)exec("mvn", "test", "-DargLine=" + argLine)
+                .workingDir(this.projectDir)
+                .env("JAVA_HOME", javaHome.getDirectory().toString())
+                .exitValuesAny()
+                .verbose()
+                .run();
+
+            if (exitValue != 0) {
+                log.warn("Using JDK {} -- tests failed (will still profile what was recorded)", javaHome);
+            }
+
+            final List<Path> recordings;
+            try (Stream<Path> paths = Files.list(recordingDir)) {
+                recordings = paths
+                    .filter(p -> p.getFileName().toString().endsWith(".jfr"))
+                    .collect(Collectors.toList());
+            }
+
+            if (recordings.isEmpty()) {
+                log.warn("No recordings for {} in {}, the surefire <argLine> of this project must include the argLine"
+                    + " property (e.g. <argLine>@{argLine} -Xmx1g</argLine>) for flight recorder to be enabled", name, recordingDir);
+                continue;
+            }
+
+            // every recording is parsed concurrently into its own summary, then merged
+            final Path jfr = jfrExe;
+            final List<JfrSummary> recordingSummaries;
+            try (BlockingExecutor blockingExecutor = this.newBlockingExecutor()) {
+                recordingSummaries = blockingExecutor.map(recordings, recording -> {
+                    final JfrSummary recordingSummary = new JfrSummary();
+                    exec(jfr, "print", "--events", "jdk.ExecutionSample,jdk.ObjectAllocationSample,jdk.ObjectAllocationInNewTLAB,jdk.ObjectAllocationOutsideTLAB,jdk.GarbageCollection", recording)
+                        .pipeOutput(Streamables.lineOutput(recordingSummary))
+                        .run();
+                    return recordingSummary;
+                });
+            }
+
+            final JfrSummary summary = new JfrSummary();
+            recordingSummaries.forEach(summary::merge);
+
+            log.info("Parsed {} recording(s) for {} ({} cpu samples, {} gcs)", recordings.size(), name, summary.getCpuSampleCount(), summary.getGcCount());
+
+            summaries.put(name, summary);
+        }
+
+        if (summaries.isEmpty()) {
+            fail("No JDKs were profiled");
+        }
+
+        final List<String> report = this.profileTestsReport(summaries, 15);
+        final Path reportFile = profileDir.resolve("report.txt");
+        Files.write(reportFile, report);
+
         log.info("");
+        for (String line : report) {
+            log.info("{}", line);
+        }
+        log.info("");
+        log.info("Profile report written to {} (recordings in {})", reportFile, profileDir);
+    }
 
-        if (javaHomes.isEmpty()) {
-            fail("No JDKs found matching versions " + jdkVersionStr);
+    protected String mvnEvaluate(String expression) {
+        final String value = exec("mvn", "-q", "-N", "help:evaluate", "-Dexpression=" + expression, "-DforceStdout")
+            .workingDir(this.projectDir)
+            .runCaptureOutput(false)
+            .toString()
+            .trim();
+
+        // what maven prints for something that isn't set
+        if (value.isEmpty() || value.startsWith("null object") || value.contains("${")) {
+            return null;
+        }
+
+        return value;
+    }
+
+    protected List<String> profileTestsReport(Map<String,JfrSummary> summaries, int limit) {
+        final List<String> lines = new ArrayList<>();
+        final int methodWidth = 80;
+        final int columnWidth = 12;
+
+        final StringBuilder header = new StringBuilder(fixedWidthLeft("", methodWidth));
+        for (String name : summaries.keySet()) {
+            header.append(fixedWidthCenter(name, columnWidth));
         }
 
+        // cpu & allocation hotspots: the union of each jdk's top methods, so they can be compared side by side
+        lines.add("Top CPU hotspots (% of execution samples)");
+        lines.add(header.toString());
+        for (String method : this.profileTopMethods(summaries, limit, true)) {
+            final StringBuilder row = new StringBuilder(fixedWidthLeft(method, methodWidth));
+            for (JfrSummary summary : summaries.values()) {
+                final long samples = summary.getCpuSamples().getOrDefault(method, 0L);
+                row.append(fixedWidthCenter(percent(samples, summary.getCpuSampleCount()), columnWidth));
+            }
+            lines.add(row.toString());
+        }
+
+        lines.add("");
+        lines.add("Top allocation sites (% of sampled bytes)");
+        lines.add(header.toString());
+        for (String method : this.profileTopMethods(summaries, limit, false)) {
+            final StringBuilder row = new StringBuilder(fixedWidthLeft(method, methodWidth));
+            for (JfrSummary summary : summaries.values()) {
+                final long bytes = summary.getAllocationBytes().getOrDefault(method, 0L);
+                row.append(fixedWidthCenter(percent(bytes, summary.getAllocationByteCount()), columnWidth));
+            }
+            lines.add(row.toString());
+        }
+
+        lines.add("");
+        lines.add("GC pauses");
+        lines.add(header.toString());
+        final StringBuilder gcCountRow = new StringBuilder(fixedWidthLeft("count", methodWidth));
+        final StringBuilder gcTotalRow = new StringBuilder(fixedWidthLeft("total pause (ms)", methodWidth));
+        final StringBuilder gcMaxRow = new StringBuilder(fixedWidthLeft("max pause (ms)", methodWidth));
+        for (JfrSummary summary : summaries.values()) {
+            gcCountRow.append(fixedWidthCenter(Long.toString(summary.getGcCount()), columnWidth));
+            gcTotalRow.append(fixedWidthCenter(String.format(Locale.ROOT, "%.1f", summary.getGcPauseTotalMillis()), columnWidth));
+            gcMaxRow.append(fixedWidthCenter(String.format(Locale.ROOT, "%.1f", summary.getGcPauseMaxMillis()), columnWidth));
+        }
+        lines.add(gcCountRow.toString());
+        lines.add(gcTotalRow.toString());
+        lines.add(gcMaxRow.toString());
+
+        return lines;
+    }
+
+    private List<String> profileTopMethods(Map<String,JfrSummary> summaries, int limit, boolean cpu) {
+        final Set<String> methods = new LinkedHashSet<>();
+        for (JfrSummary summary : summaries.values()) {
+            methods.addAll(cpu ? summary.topCpuMethods(limit) : summary.topAllocationMethods(limit));
+        }
+        return new ArrayList<>(methods);
+    }
+
+    static private String percent(long value, long total) {
+        if (total <= 0L || value <= 0L) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "%.1f%%", (value * 100d) / total);
+    }
+
+    protected void mvnRelease() throws Exception {
+        this.mvnCommandsWithJdk(this.minimumSupportedJavaVersion(),
+            "clean", "release:prepare", "release:perform");
+    }
+
+    protected void mvnReleaseWithNoTests() throws Exception {
+        this.mvnCommandsWithJdk(this.minimumSupportedJavaVersion(),
+            "clean", "-DskipTests", "-Darguments=-DskipTests", "release:prepare", "release:perform");
+    }
+
+    protected List<Target> crossJdkTestTargets() {
+        // dynamically build the target list
+        final List<JavaHome> javaHomes = this.findJavaHomes(this.supportedJavaVersions());
+
         final List<Target> crossJdkTargets = new ArrayList<>();
         for (JavaHome javaHome : javaHomes) {
             final Target target = new Target("jdk-" + javaHome.getVersion().getMajor())
@@ -392,16 +849,69 @@ public class BaseBlaze {
     }
 
     protected void mvnCrossJdkTests(List<Target> crossJdkTestTargets) throws Exception {
-        new Buildx(crossJdkTestTargets)
-            .resultsFile(null)      // disable results
-            .prepareHostForContainer(copyMavenSettings())
-            .execute((host, project, target) -> {
-                // leverage the "java_home" data key to pass the java home to the test
-                project.exec("mvn", "clean", "test")
-                    .workingDir(this.projectDir)
-                    .env("JAVA_HOME", target.getData().get("java_home").toString())
-                    .run();
-            });
+        final TestDurationMatrix durationMatrix = new TestDurationMatrix();
+
+        try {
+            new Buildx(crossJdkTestTargets)
+                .resultsFile(null)      // disable results
+                .prepareHostForContainer(copyMavenSettings())
+                .execute((host, project, target) -> {
+                    try {
+                        // leverage the "java_home" data key to pass the java home to the test
+                        project.exec("mvn", "clean", "test")
+                            .workingDir(this.projectDir)
+                            .env("JAVA_HOME", target.getData().get("java_home").toString())
+                            .run();
+                    } finally {
+                        // the next target's "clean" will wipe the reports, so they must be collected now (but never
+                        // fail or hide the result of the target)
+                        try {
+                            durationMatrix.addSurefireReports(target.getName(), this.projectDir);
+                        } catch (Exception e) {
+                            log.warn("Unable to collect surefire reports for {}: {}", target.getName(), e.getMessage());
+                        }
+                    }
+                });
+        } finally {
+            try {
+                this.writeTestDurationMatrix(durationMatrix);
+            } catch (Exception e) {
+                log.warn("Unable to write test duration matrix: {}", e.getMessage());
+            }
+        }
+    }
+
+    protected void writeTestDurationMatrix(TestDurationMatrix durationMatrix) throws IOException {
+        for (Path skippedReport : durationMatrix.getSkippedReports()) {
+            log.warn("Skipped unparseable surefire report {}", skippedReport);
+        }
+
+        if (durationMatrix.getDurations().isEmpty()) {
+            log.warn("No surefire reports found, skipping test duration matrix");
+            return;
+        }
+
+        final Path reportDir = this.projectDir.resolve("target").resolve("cross-jdk-tests");
+        Files.createDirectories(reportDir);
+
+        final Path csvFile = reportDir.resolve("test-durations.csv");
+        final Path htmlFile = reportDir.resolve("test-durations.html");
+        durationMatrix.writeCsv(csvFile);
+        durationMatrix.writeHtml(htmlFile, 25);
+
+        log.info("");
+        log.info("Slowest tests (in seconds) by {}", durationMatrix.getColumns());
+        for (String test : durationMatrix.slowestTests(10)) {
+            log.info("  {} {}", test, durationMatrix.getDurations().get(test));
+        }
+        for (String test : durationMatrix.getDurations().keySet()) {
+            final List<String> slowColumns = durationMatrix.slowColumns(test);
+            if (!slowColumns.isEmpty()) {
+                log.warn("Disproportionately slow on {}: {} {}", slowColumns, test, durationMatrix.getDurations().get(test));
+            }
+        }
+        log.info("");
+        log.info("Test duration matrix written to {} and {}", csvFile, htmlFile);
     }
 
     protected List<Target> crossHostTestTargets() {
@@ -461,7 +971,60 @@ public class BaseBlaze {
         );
     }
 
+    protected Set<String> unreachableHosts(List<Target> targets) throws Exception {
+        final List<String> hosts = targets.stream()
+            .map(Target::getHost)
+            .filter(host -> host != null)
+            .distinct()
+            .collect(Collectors.toList());
+
+        if (hosts.isEmpty()) {
+            return new TreeSet<>();
+        }
+
+        if (this.config.value("targets").orNull() != null || this.config.value("tags").orNull() != null) {
+            // buildx only runs the matching targets, probing every host would mostly be noise
+            log.debug("Skipping check if hosts are reachable due to filtering (targets or tags)");
+            return new TreeSet<>();
+        }
+
+        if (Systems.which("ssh").run() == null) {
+            log.warn("No 'ssh' on your path, unable to check if {} hosts are reachable", hosts.size());
+            return new TreeSet<>();
+        }
+
+        // every host is probed concurrently, so an unreachable one is known in seconds, not once its target is reached
+        final List<Boolean> reachables;
+        try (BlockingExecutor blockingExecutor = this.newBlockingExecutor()) {
+            reachables = blockingExecutor.map(hosts, host -> {
+                int statusCode = (int) exec("ssh", "-o", "BatchMode=yes", "-o", "ConnectTimeout=5", host, "exit")
+                    .exitValuesAny()
+                    .pipeError(Streamables.nullOutput())
+                    .pipeOutput(Streamables.nullOutput())
+                    .runResult()
+                    .get();
+                return statusCode == 0;
+            });
+        }
+
+        final Set<String> unreachableHosts = new TreeSet<>();
+        for (int i = 0; i < hosts.size(); i++) {
+            if (!reachables.get(i)) {
+                unreachableHosts.add(hosts.get(i));
+            }
+        }
+
+        if (!unreachableHosts.isEmpty()) {
+            log.warn("Unable to reach {} of {} hosts over ssh (their targets will likely fail): {}",
+                unreachableHosts.size(), hosts.size(), String.join(", ", unreachableHosts));
+        }
+
+        return unreachableHosts;
+    }
+
     protected void mvnCrossHostTests(List<Target> crossHostTestTargets) throws Exception {
+        this.unreachableHosts(crossHostTestTargets);
+
         new Buildx(crossHostTestTargets)
             // only update results on ALL cross tests, not just ones for host
             .resultsFile(null)
@@ -482,20 +1045,104 @@ public class BaseBlaze {
             log.warn("Disabling buildx results file due to filtering (targets or tags)...");
         }
 
+        this.unreachableHosts(crossTestTargets);
+
         new Buildx(crossTestTargets)
             .resultsFile(buildxResultsFile)
             .execute((host, project, target) -> {
-                if (target.getName().startsWith("jck-")) {
-                    // leverage the "java_home" data key to pass the java home to the test
-                    project.exec("mvn", "clean", "test")
-                        .workingDir(this.projectDir)
-                        .env("JAVA_HOME", target.getData().get("java_home").toString())
-                        .run();
-                } else {
-                    project.exec("mvn", "clean", "test")
-                        .run();
+                // the (very verbose) maven output of every target goes to compressed, rotated & indexed logs, with
+                // only a summary of it on the console
+                try (LogCapture logCapture = this.logCapture(target.getName())) {
+                    if (target.getName().startsWith("jck-")) {
+                        // leverage the "java_home" data key to pass the java home to the test
+                        project.exec("mvn", "clean", "test")
+                            .workingDir(this.projectDir)
+                            .env("JAVA_HOME", target.getData().get("java_home").toString())
+                            .pipeOutput(Streamables.output(logCapture))
+                            .pipeErrorToOutput()
+                            .run();
+                    } else {
+                        project.exec("mvn", "clean", "test")
+                            .pipeOutput(Streamables.output(logCapture))
+                            .pipeErrorToOutput()
+                            .run();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (RuntimeException e) {
+                    log.error("Target {} failed, run 'logs --target {} --context 20' to jump to its failures", target.getName(), target.getName());
+                    throw e;
                 }
             });
     }
 
+    // helpers for capturing the logs of long cross runs
+
+    protected Path logCaptureDir() {
+        return this.projectDir.resolve(".buildx-logs").resolve("capture");
+    }
+
+    protected Pattern logCaptureSummaryPattern() {
+        // the progress & results of maven, e.g. "Building foo 1.0", "Tests run: 5, Failures: 0", "BUILD SUCCESS"
+        return Pattern.compile("Building |Tests run:|\\[ERROR]|BUILD (SUCCESS|FAILURE)");
+    }
+
+    protected LogCapture logCapture(String name) throws IOException {
+        final Path dir = this.logCaptureDir().resolve(name.replaceAll("[^A-Za-z0-9._-]", "_"));
+
+        // segments of 16 MB (uncompressed), keeping the most recent 8, with up to 1024 writes buffered
+        final LogCapture logCapture = new LogCapture(dir, 16L*1024L*1024L, 8, 1024);
+
+        // only a summary is shown as it goes, unless all the output is asked for (e.g. --full-output)
+        final boolean fullOutput = this.config.flag("full-output").orElse(false);
+        return logCapture.console(System.out, fullOutput ? null : this.logCaptureSummaryPattern());
+    }
+
+    protected void showCapturedLogs(String name, int context) throws IOException {
+        final Path captureDir = this.logCaptureDir();
+
+        final List<Path> dirs;
+        if (Files.isDirectory(captureDir)) {
+            try (Stream<Path> paths = Files.list(captureDir)) {
+                dirs = paths
+                    .filter(Files::isDirectory)
+                    .filter(p -> name == null || p.getFileName().toString().contains(name))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+        } else {
+            dirs = new ArrayList<>();
+        }
+
+        if (dirs.isEmpty()) {
+            log.info("No captured logs found in {}", captureDir);
+            return;
+        }
+
+        for (Path dir : dirs) {
+            final List<LogCapture.IndexEntry> entries = LogCapture.readIndex(dir);
+
+            long compressedBytes = 0L;
+            try (Stream<Path> paths = Files.list(dir)) {
+                for (Path p : paths.filter(p -> p.getFileName().toString().endsWith(".gz")).collect(Collectors.toList())) {
+                    compressedBytes += Files.size(p);
+                }
+            }
+
+            log.info("");
+            log.info("{} ({} failure lines, {} KB compressed in {})", dir.getFileName(), entries.size(), compressedBytes/1024L, dir);
+
+            for (LogCapture.IndexEntry entry : entries) {
+                log.info("  {}:{} {}", entry.getSegment().getFileName(), entry.getLineNumber(), entry.getLine());
+                if (context > 0) {
+                    for (String line : LogCapture.readContext(entry, context)) {
+                        log.info("    | {}", line);
+                    }
+                }
+            }
+        }
+
+        log.info("");
+    }
+
 }
\ No newline at end of file
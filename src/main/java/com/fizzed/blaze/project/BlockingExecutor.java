@@ -0,0 +1,133 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.Contexts;
+import com.fizzed.blaze.core.ContextHolder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking work (execs, disk scans, etc.) concurrently. On a JDK 21+ runtime every task gets its own virtual
+ * thread, so fanning out to dozens of processes is cheap, otherwise (e.g. JDK 8) a bounded pool of platform threads
+ * is used. The blaze context of the thread creating the executor is bound to every task, so actions like exec() work.
+ */
+public class BlockingExecutor implements AutoCloseable {
+
+    public interface Task<T,R> {
+
+        R apply(T item) throws Exception;
+
+    }
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final Context context;
+
+    public BlockingExecutor(int maxPlatformThreads) {
+        this.context = Contexts.currentContext();
+
+        final ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+            this.virtual = true;
+        } else {
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ThreadPoolExecutor platformExecutor = new ThreadPoolExecutor(maxPlatformThreads, maxPlatformThreads,
+                30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    final Thread thread = new Thread(r, "blocking-executor-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            // idle threads go away, so an executor that's never closed doesn't hang onto them
+            platformExecutor.allowCoreThreadTimeOut(true);
+            this.executor = platformExecutor;
+            this.virtual = false;
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public <R> Future<R> submit(Callable<R> task) {
+        return this.executor.submit(() -> {
+            ContextHolder.set(this.context);
+            return task.call();
+        });
+    }
+
+    /**
+     * Applies the task to every item concurrently and waits for all of them, returning the results in the same order
+     * as the items. If any task fails, the first failure (in item order) is thrown.
+     */
+    public <T,R> List<R> map(Collection<T> items, Task<T,R> task) throws Exception {
+        final List<Future<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(this.submit(() -> task.apply(item)));
+        }
+
+        final List<R> results = new ArrayList<>(items.size());
+        Exception failure = null;
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+                }
+                results.add(null);
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return results;
+    }
+
+    /**
+     * Waits for every submitted task to finish. If interrupted while waiting, the tasks are interrupted too and the
+     * interrupt flag of the current thread is restored.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static private ExecutorService newVirtualThreadPerTaskExecutor() {
+        // the project targets java 8, so the jdk 21+ api must be found at runtime
+        try {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // e.g. jdk 19 or 20 without preview features enabled
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                return null;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.util.LineOutputStream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates the text output of "jfr print" (line by line, so recordings never need to be held in memory) into the
+ * top cpu hotspots, top allocation sites and gc pauses. One summary can consume any number of recordings.
+ * Allocations are from jdk.ObjectAllocationSample events (JDK 16+), or the TLAB events that older JDKs record instead.
+ */
+public class JfrSummary implements LineOutputStream.Processor {
+
+    private final Map<String,Long> cpuSamples;
+    private final Map<String,Long> allocationBytes;
+    private long cpuSampleCount;
+    private long allocationByteCount;
+    private long gcCount;
+    private double gcPauseTotalMillis;
+    private double gcPauseMaxMillis;
+    // state of the event currently being parsed
+    private String eventType;
+    private boolean inStackTrace;
+    private String topFrame;
+    private long weight;
+    private double pauseMillis;
+
+    public JfrSummary() {
+        this.cpuSamples = new HashMap<>();
+        this.allocationBytes = new HashMap<>();
+    }
+
+    public long getCpuSampleCount() {
+        return cpuSampleCount;
+    }
+
+    public long getAllocationByteCount() {
+        return allocationByteCount;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public double getGcPauseTotalMillis() {
+        return gcPauseTotalMillis;
+    }
+
+    public double getGcPauseMaxMillis() {
+        return gcPauseMaxMillis;
+    }
+
+    public Map<String,Long> getCpuSamples() {
+        return cpuSamples;
+    }
+
+    public Map<String,Long> getAllocationBytes() {
+        return allocationBytes;
+    }
+
+    public List<String> topCpuMethods(int limit) {
+        return top(this.cpuSamples, limit);
+    }
+
+    public List<String> topAllocationMethods(int limit) {
+        return top(this.allocationBytes, limit);
+    }
+
+    /**
+     * Adds everything another summary collected to this one (e.g. recordings parsed concurrently).
+     */
+    public void merge(JfrSummary other) {
+        other.cpuSamples.forEach((method, samples) -> this.cpuSamples.merge(method, samples, Long::sum));
+        other.allocationBytes.forEach((method, bytes) -> this.allocationBytes.merge(method, bytes, Long::sum));
+        this.cpuSampleCount += other.cpuSampleCount;
+        this.allocationByteCount += other.allocationByteCount;
+        this.gcCount += other.gcCount;
+        this.gcPauseTotalMillis += other.gcPauseTotalMillis;
+        this.gcPauseMaxMillis = Math.max(this.gcPauseMaxMillis, other.gcPauseMaxMillis);
+    }
+
+    @Override
+    public void process(String line) {
+        final String s = line.trim();
+
+        if (this.eventType == null) {
+            if (s.endsWith("{")) {
+                this.eventType = s.substring(0, s.length()-1).trim();
+            }
+            return;
+        }
+
+        if (this.inStackTrace) {
+            if (s.equals("]")) {
+                this.inStackTrace = false;
+            } else if (this.topFrame == null && !s.isEmpty() && !s.equals("...")) {
+                // e.g. java.util.HashMap.hash(Object) line: 339
+                final int lineNumberPos = s.indexOf(" line:");
+                this.topFrame = lineNumberPos > 0 ? s.substring(0, lineNumberPos) : s;
+            }
+            return;
+        }
+
+        if (s.equals("}")) {
+            this.endEvent();
+            return;
+        }
+
+        final int equalsPos = s.indexOf(" = ");
+        if (equalsPos < 0) {
+            return;
+        }
+
+        final String name = s.substring(0, equalsPos);
+        final String value = s.substring(equalsPos + 3);
+
+        if (name.equals("stackTrace")) {
+            this.inStackTrace = value.equals("[");
+        } else if (name.equals("weight") && this.eventType.equals("jdk.ObjectAllocationSample")) {
+            this.weight = parseBytes(value);
+        } else if (name.equals("tlabSize") && this.eventType.equals("jdk.ObjectAllocationInNewTLAB")) {
+            // the event stands for the whole new TLAB, not just the object that triggered it
+            this.weight = parseBytes(value);
+        } else if (name.equals("allocationSize") && this.eventType.equals("jdk.ObjectAllocationOutsideTLAB")) {
+            this.weight = parseBytes(value);
+        } else if (name.equals("sumOfPauses") && this.eventType.equals("jdk.GarbageCollection")) {
+            this.pauseMillis = parseMillis(value);
+        }
+    }
+
+    private void endEvent() {
+        switch (this.eventType) {
+            case "jdk.ExecutionSample":
+                this.cpuSampleCount++;
+                if (this.topFrame != null) {
+                    this.cpuSamples.merge(this.topFrame, 1L, Long::sum);
+                }
+                break;
+            case "jdk.ObjectAllocationSample":
+            case "jdk.ObjectAllocationInNewTLAB":
+            case "jdk.ObjectAllocationOutsideTLAB":
+                this.allocationByteCount += this.weight;
+                if (this.topFrame != null) {
+                    this.allocationBytes.merge(this.topFrame, this.weight, Long::sum);
+                }
+                break;
+            case "jdk.GarbageCollection":
+                this.gcCount++;
+                this.gcPauseTotalMillis += this.pauseMillis;
+                this.gcPauseMaxMillis = Math.max(this.gcPauseMaxMillis, this.pauseMillis);
+                break;
+            default:
+                break;
+        }
+
+        this.eventType = null;
+        this.inStackTrace = false;
+        this.topFrame = null;
+        this.weight = 0L;
+        this.pauseMillis = 0d;
+    }
+
+    static private List<String> top(Map<String,Long> counts, int limit) {
+        final List<Map.Entry<String,Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+        final List<String> methods = new ArrayList<>();
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            methods.add(entries.get(i).getKey());
+        }
+        return methods;
+    }
+
+    static long parseBytes(String value) {
+        // e.g. 528 bytes, 12.3 kB, 1.5 MB
+        final String[] parts = value.replace(",", "").split(" ");
+        if (parts.length != 2) {
+            return 0L;
+        }
+
+        final double amount;
+        try {
+            amount = Double.parseDouble(parts[0]);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+
+        switch (parts[1]) {
+            case "byte":
+            case "bytes":
+                return (long)amount;
+            case "kB":
+                return (long)(amount * 1024L);
+            case "MB":
+                return (long)(amount * 1024L * 1024L);
+            case "GB":
+                return (long)(amount * 1024L * 1024L * 1024L);
+            default:
+                return 0L;
+        }
+    }
+
+    static double parseMillis(String value) {
+        // e.g. 876 ns, 12.5 us, 2.34 ms, 1.02 s
+        final String[] parts = value.replace(",", "").split(" ");
+        if (parts.length != 2) {
+            return 0d;
+        }
+
+        final double amount;
+        try {
+            amount = Double.parseDouble(parts[0]);
+        } catch (NumberFormatException e) {
+            return 0d;
+        }
+
+        switch (parts[1]) {
+            case "ns":
+                return amount / 1000000d;
+            case "us":
+                return amount / 1000d;
+            case "ms":
+                return amount;
+            case "s":
+                return amount * 1000d;
+            default:
+                return 0d;
+        }
+    }
+
+}
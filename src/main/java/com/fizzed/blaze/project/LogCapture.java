@@ -0,0 +1,350 @@
+package com.fizzed.blaze.project;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Captures the output of a (usually very verbose) process into gzipped log segments in a directory, rotating to a new
+ * segment once one reaches a size limit, and only keeping the most recent segments. Writes are handed off to a
+ * background thread thru a bounded buffer (which blocks the process output if the disk can't keep up). Every line with a
+ * maven or surefire failure marker is also appended to an index (trimmed along with the segments), so they can be found
+ * without decompressing anything.
+ * Optionally, every line (or only a summary of them) is also written to the console as it goes.
+ */
+public class LogCapture extends OutputStream {
+
+    static public final String INDEX_FILE = "index.tsv";
+    // only maven & surefire failure markers, e.g. not every test or log line mentioning an exception
+    static private final Pattern FAILURE_PATTERN = Pattern.compile(
+        "^\\[ERROR]|<<< (FAILURE|ERROR)!|Tests run:.*(Failures|Errors): [1-9]|^Caused by:|BUILD FAILURE");
+    static private final byte[] END = new byte[0];
+    static private final int MAX_INDEXED_LINE_LENGTH = 512;
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+    private final BlockingQueue<byte[]> buffer;
+    private final Thread writerThread;
+    private volatile IOException writerException;
+    private volatile boolean closed;
+    private OutputStream console;
+    private Pattern consolePattern;
+    // state only touched by the writer thread
+    private final ByteArrayOutputStream line;
+    private final Deque<Path> segments;
+    private int droppedSegments;
+    private BufferedWriter indexWriter;
+    private OutputStream segmentOutput;
+    private Path segment;
+    private long segmentBytes;
+    private long lineNumber;
+
+    public LogCapture(Path dir, long maxSegmentBytes, int maxSegments, int bufferCapacity) throws IOException {
+        this.dir = dir;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = maxSegments;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.line = new ByteArrayOutputStream();
+        this.segments = new ArrayDeque<>();
+
+        Files.createDirectories(dir);
+
+        // start from scratch on every capture
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path p : paths.collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+
+        this.indexWriter = Files.newBufferedWriter(dir.resolve(INDEX_FILE));
+        this.writerThread = new Thread(this::writeLoop, "log-capture-" + dir.getFileName());
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    /**
+     * Also writes the output to the console (e.g. System.out) as it goes, either every line if the pattern is null, or
+     * only the lines matching it (e.g. a summary of the progress). Must be set before anything is written.
+     */
+    public LogCapture console(OutputStream console, Pattern consolePattern) {
+        this.console = console;
+        this.consolePattern = consolePattern;
+        return this;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.write(new byte[] { (byte)b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len <= 0) {
+            return;
+        }
+        if (this.writerException != null) {
+            throw this.writerException;
+        }
+        if (this.closed) {
+            throw new IOException("Log capture closed");
+        }
+
+        final byte[] chunk = new byte[len];
+        System.arraycopy(b, off, chunk, 0, len);
+        try {
+            this.buffer.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        try {
+            this.buffer.put(END);
+            this.writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+
+        if (this.writerException != null) {
+            throw this.writerException;
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                final byte[] chunk = this.buffer.take();
+                if (chunk == END) {
+                    break;
+                }
+                this.writeChunk(chunk);
+            }
+            this.endLine();
+        } catch (IOException e) {
+            this.writerException = e;
+        } catch (InterruptedException e) {
+            this.writerException = new InterruptedIOException();
+        } finally {
+            try {
+                if (this.segmentOutput != null) {
+                    this.segmentOutput.close();
+                }
+                this.indexWriter.close();
+            } catch (IOException e) {
+                if (this.writerException == null) {
+                    this.writerException = e;
+                }
+            }
+            // unblock any writer still waiting on a full buffer
+            this.buffer.clear();
+        }
+    }
+
+    private void writeChunk(byte[] chunk) throws IOException {
+        if (this.console != null && this.consolePattern == null) {
+            this.console.write(chunk);
+            this.console.flush();
+        }
+
+        int start = 0;
+        for (int i = 0; i < chunk.length; i++) {
+            if (chunk[i] == '\n') {
+                this.writeSegment(chunk, start, i + 1 - start);
+                this.endLine();
+                start = i + 1;
+            }
+        }
+        if (start < chunk.length) {
+            this.writeSegment(chunk, start, chunk.length - start);
+        }
+    }
+
+    private void writeSegment(byte[] b, int off, int len) throws IOException {
+        if (this.segmentOutput == null) {
+            this.nextSegment();
+        }
+        this.segmentOutput.write(b, off, len);
+        this.segmentBytes += len;
+
+        // only the start of a line is needed to check for failures & put in the index
+        final int remaining = MAX_INDEXED_LINE_LENGTH - this.line.size();
+        if (remaining > 0) {
+            this.line.write(b, off, Math.min(len, remaining));
+        }
+    }
+
+    private void endLine() throws IOException {
+        if (this.segmentOutput == null) {
+            return;
+        }
+
+        final String s = this.line.toString(StandardCharsets.UTF_8.name()).trim();
+        if (FAILURE_PATTERN.matcher(s).find()) {
+            this.indexWriter.append(this.segment.getFileName().toString())
+                .append('\t').append(Long.toString(this.lineNumber))
+                .append('\t').append(s.replace('\t', ' '))
+                .append('\n');
+            this.indexWriter.flush();
+        }
+
+        if (this.console != null && this.consolePattern != null && this.consolePattern.matcher(s).find()) {
+            this.console.write(("[" + this.dir.getFileName() + "] " + s + "\n").getBytes(StandardCharsets.UTF_8));
+            this.console.flush();
+        }
+
+        this.line.reset();
+        this.lineNumber++;
+
+        // only rotate on line boundaries, so an indexed line is always in a single segment
+        if (this.segmentBytes >= this.maxSegmentBytes) {
+            this.segmentOutput.close();
+            this.segmentOutput = null;
+        }
+    }
+
+    private void nextSegment() throws IOException {
+        this.segment = this.dir.resolve(String.format("output.%05d.log.gz", this.segments.size() + 1 + this.droppedSegments));
+        this.segmentOutput = new GZIPOutputStream(Files.newOutputStream(this.segment), 64 * 1024);
+        this.segments.addLast(this.segment);
+        this.segmentBytes = 0L;
+        this.lineNumber = 1L;
+
+        final Set<String> dropped = new HashSet<>();
+        while (this.segments.size() > this.maxSegments) {
+            final Path droppedSegment = this.segments.removeFirst();
+            Files.deleteIfExists(droppedSegment);
+            dropped.add(droppedSegment.getFileName().toString());
+            this.droppedSegments++;
+        }
+
+        if (!dropped.isEmpty()) {
+            this.trimIndex(dropped);
+        }
+    }
+
+    private void trimIndex(Set<String> droppedSegments) throws IOException {
+        // the index only has the failure lines of at most maxSegments segments, so rewriting it is cheap
+        this.indexWriter.close();
+
+        final Path indexFile = this.dir.resolve(INDEX_FILE);
+        final Path tempFile = this.dir.resolve(INDEX_FILE + ".tmp");
+        final List<String> kept = Files.readAllLines(indexFile).stream()
+            .filter(s -> !droppedSegments.contains(s.split("\t", 2)[0]))
+            .collect(Collectors.toList());
+        Files.write(tempFile, kept);
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+
+        this.indexWriter = Files.newBufferedWriter(indexFile, StandardOpenOption.APPEND);
+    }
+
+    // helpers for reading captured logs back
+
+    static public class IndexEntry {
+
+        private final Path segment;
+        private final long lineNumber;
+        private final String line;
+
+        public IndexEntry(Path segment, long lineNumber, String line) {
+            this.segment = segment;
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        public Path getSegment() {
+            return segment;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLine() {
+            return line;
+        }
+
+    }
+
+    static public List<IndexEntry> readIndex(Path dir) throws IOException {
+        final List<IndexEntry> entries = new ArrayList<>();
+        final Path indexFile = dir.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) {
+            return entries;
+        }
+
+        for (String s : Files.readAllLines(indexFile)) {
+            final String[] fields = s.split("\t", 3);
+            if (fields.length == 3) {
+                final Path segment = dir.resolve(fields[0]);
+                if (Files.exists(segment)) {
+                    entries.add(new IndexEntry(segment, Long.parseLong(fields[1]), fields[2]));
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Lines surrounding an indexed line, which only decompresses the one segment it is in (and stops right after).
+     */
+    static public List<String> readContext(IndexEntry entry, int context) throws IOException {
+        final Deque<String> lines = new ArrayDeque<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(entry.getSegment())), StandardCharsets.UTF_8))) {
+            long lineNumber = 0L;
+            String s;
+            while ((s = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber < entry.getLineNumber()) {
+                    lines.addLast(s);
+                    if (lines.size() > context) {
+                        lines.removeFirst();
+                    }
+                } else if (lineNumber <= entry.getLineNumber() + context) {
+                    lines.addLast(s);
+                } else {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(lines);
+    }
+
+}
@@ -3,12 +3,15 @@ package com.fizzed.blaze.project;
 import com.fizzed.blaze.Task;
 import com.fizzed.blaze.TaskGroup;
 import com.fizzed.buildx.Target;
+import com.fizzed.jne.JavaHome;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static com.fizzed.blaze.Contexts.fail;
 import static com.fizzed.blaze.Systems.exec;
 
 @TaskGroup(value="main", name="Main", order=10)
@@ -28,6 +31,31 @@ public class PublicBlaze extends BaseBlaze {
         this.projectNuke();
     }
 
+    @Task(group="project", order=50, value="Watches sources and re-runs affected tests on every change, with maven in a warm JVM only if mvnd is installed, tests still fork unless --in-process which ignores argLine (e.g. --jdks 21,17 to test on more than one JDK).")
+    public void watch() throws Exception {
+        final String jdks = this.config.value("jdks").orNull();
+
+        final List<JavaHome> javaHomes = new ArrayList<>();
+        if (jdks != null) {
+            javaHomes.addAll(this.findJavaHomes(Arrays.stream(jdks.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray()));
+        } else {
+            // the newest supported jdk by default, so only search until one is found
+            for (int jdkVersion : this.supportedJavaVersions()) {
+                final JavaHome javaHome = this.findJavaHome(jdkVersion).orElse(null);
+                if (javaHome != null) {
+                    log.info("Detected JDK {}", javaHome);
+                    javaHomes.add(javaHome);
+                    break;
+                }
+            }
+            if (javaHomes.isEmpty()) {
+                fail("No JDKs found matching versions " + Arrays.toString(this.supportedJavaVersions()));
+            }
+        }
+
+        this.mvnWatchTests(javaHomes);
+    }
+
     @Task(group="project", order=100, value="Runs tests across various JDK versions that this project supports.")
     public void cross_jdk_tests() throws Exception {
         final List<Target> crossJdkTestTargets = this.crossJdkTestTargets();
@@ -35,6 +63,13 @@ public class PublicBlaze extends BaseBlaze {
         this.mvnCrossJdkTests(crossJdkTestTargets);
     }
 
+    @Task(group="project", order=110, value="Profiles tests with flight recorder across various JDK versions and reports hotspots side by side.")
+    public void profile_tests() throws Exception {
+        final List<JavaHome> javaHomes = this.findJavaHomes(this.supportedJavaVersions());
+
+        this.mvnProfileTests(javaHomes);
+    }
+
     @Task(group="maintainers", value="Runs tests across various hosts (os/arch combos) that this project supports.")
     public void cross_host_tests() throws Exception {
         final List<Target> crossHostTestTargets = this.crossHostTestTargets();
@@ -42,7 +77,7 @@ public class PublicBlaze extends BaseBlaze {
         this.mvnCrossHostTests(crossHostTestTargets);
     }
 
-    @Task(group="maintainers", value="Runs tests across both cross_jdk_tests and cross_host_tests in one run with combined results.")
+    @Task(group="maintainers", value="Runs tests across both cross_jdk_tests and cross_host_tests in one run with combined results (only a summary of the output is shown, use --full-output for all of it).")
     public void cross_tests() throws Exception {
         // both jdk and host tests
         final List<Target> crossTestTargets = new ArrayList<>();
@@ -51,6 +86,14 @@ public class PublicBlaze extends BaseBlaze {
         this.mvnCrossTests(crossTestTargets);
     }
 
+    @Task(group="maintainers", value="Shows failures in the logs captured by cross_tests (e.g. --target linux-x64 --context 20).")
+    public void logs() throws Exception {
+        final String target = this.config.value("target").orNull();
+        final int context = this.config.value("context", Integer.class).orElse(0);
+
+        this.showCapturedLogs(target, context);
+    }
+
     protected void projectRelease() throws Exception {
         this.mvnRelease();
     }
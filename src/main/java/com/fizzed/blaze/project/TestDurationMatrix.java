@@ -0,0 +1,247 @@
+package com.fizzed.blaze.project;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Test durations (in seconds) of every test by a column (e.g. jdk-21), collected from the surefire XML reports of each
+ * run, so tests that are disproportionately slow on one JDK stand out.
+ */
+public class TestDurationMatrix {
+
+    private final List<String> columns;
+    private final Map<String,Map<String,Double>> durations;
+    private final List<Path> skippedReports;
+    private double slowFactor;
+    private double slowMinSeconds;
+
+    public TestDurationMatrix() {
+        this.columns = new ArrayList<>();
+        this.durations = new TreeMap<>();
+        this.skippedReports = new ArrayList<>();
+        this.slowFactor = 2.0d;
+        this.slowMinSeconds = 0.1d;
+    }
+
+    public TestDurationMatrix slowFactor(double slowFactor) {
+        this.slowFactor = slowFactor;
+        return this;
+    }
+
+    public TestDurationMatrix slowMinSeconds(double slowMinSeconds) {
+        this.slowMinSeconds = slowMinSeconds;
+        return this;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public Map<String,Map<String,Double>> getDurations() {
+        return durations;
+    }
+
+    /**
+     * Reports that could not be parsed (e.g. truncated by a crashed fork) and were skipped.
+     */
+    public List<Path> getSkippedReports() {
+        return skippedReports;
+    }
+
+    public synchronized TestDurationMatrix add(String test, String column, double seconds) {
+        if (!this.columns.contains(column)) {
+            this.columns.add(column);
+        }
+        this.durations.computeIfAbsent(test, k -> new LinkedHashMap<>()).merge(column, seconds, Double::sum);
+        return this;
+    }
+
+    public synchronized int addSurefireReports(String column, Path projectDir) throws IOException {
+        // every target/surefire-reports dir of the project (and any nested maven modules)
+        final List<Path> reportFiles;
+        try (Stream<Path> paths = Files.walk(projectDir, 6)) {
+            reportFiles = paths
+                .filter(p -> p.getParent() != null && p.getParent().getFileName().toString().equals("surefire-reports"))
+                .filter(p -> p.getFileName().toString().startsWith("TEST-") && p.getFileName().toString().endsWith(".xml"))
+                .filter(p -> !projectDir.relativize(p).toString().startsWith("."))
+                .collect(Collectors.toList());
+        }
+
+        if (!this.columns.contains(column)) {
+            this.columns.add(column);
+        }
+
+        final SAXParser parser;
+        try {
+            parser = SAXParserFactory.newInstance().newSAXParser();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        int parsed = 0;
+        for (Path reportFile : reportFiles) {
+            // parsed fully before anything is added, so a truncated report adds nothing
+            final Map<String,Double> reportDurations = new LinkedHashMap<>();
+            try {
+                parser.reset();
+                parser.parse(reportFile.toFile(), new DefaultHandler() {
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        if (qName.equals("testcase")) {
+                            final String time = attributes.getValue("time");
+                            if (time != null) {
+                                final String test = attributes.getValue("classname") + "." + attributes.getValue("name");
+                                // older surefire versions format times like 1,234.5
+                                final double seconds = Double.parseDouble(time.replace(",", ""));
+                                reportDurations.merge(test, seconds, Double::sum);
+                            }
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                // e.g. truncated by a crashed fork, which must not hide (or change) the result of the tests
+                this.skippedReports.add(reportFile);
+                continue;
+            }
+            reportDurations.forEach((test, seconds) -> this.add(test, column, seconds));
+            parsed++;
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Whether the test took at least slowFactor times the median of all the other columns (and slowMinSeconds more),
+     * which filters out the noise of very fast tests.
+     */
+    public boolean isSlow(String test, String column) {
+        final Map<String,Double> byColumn = this.durations.get(test);
+        if (byColumn == null || byColumn.size() < 2 || !byColumn.containsKey(column)) {
+            return false;
+        }
+
+        // the column itself is excluded, otherwise with only 2 columns it would pull the median up to always be slow
+        final double[] values = byColumn.entrySet().stream()
+            .filter(entry -> !entry.getKey().equals(column))
+            .mapToDouble(Map.Entry::getValue)
+            .sorted()
+            .toArray();
+        final double median = values.length % 2 == 1
+            ? values[values.length/2] : (values[values.length/2-1] + values[values.length/2]) / 2d;
+        final double value = byColumn.get(column);
+
+        return value >= median * this.slowFactor && (value - median) >= this.slowMinSeconds;
+    }
+
+    public List<String> slowColumns(String test) {
+        return this.columns.stream()
+            .filter(column -> this.isSlow(test, column))
+            .collect(Collectors.toList());
+    }
+
+    public List<String> slowestTests(int limit) {
+        return this.durations.entrySet().stream()
+            .sorted((a, b) -> Double.compare(max(b.getValue()), max(a.getValue())))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.append("test");
+            for (String column : this.columns) {
+                writer.append(",").append(column);
+            }
+            writer.append(",slow_on\n");
+
+            for (Map.Entry<String,Map<String,Double>> entry : this.durations.entrySet()) {
+                writer.append(csvEscape(entry.getKey()));
+                for (String column : this.columns) {
+                    writer.append(",");
+                    final Double seconds = entry.getValue().get(column);
+                    if (seconds != null) {
+                        writer.append(String.format(Locale.ROOT, "%.3f", seconds));
+                    }
+                }
+                writer.append(",").append(String.join(" ", this.slowColumns(entry.getKey()))).append("\n");
+            }
+        }
+    }
+
+    public void writeHtml(Path file, int slowestLimit) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Test durations by JDK</title>\n");
+            writer.append("<style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:2px 8px}")
+                .append("td.s{text-align:right}td.slow{background:#f8c0c0;font-weight:bold}</style>\n</head>\n<body>\n");
+
+            writer.append("<h2>Slowest tests</h2>\n");
+            this.writeHtmlTable(writer, this.slowestTests(slowestLimit));
+
+            final List<String> slowTests = this.durations.keySet().stream()
+                .filter(test -> !this.slowColumns(test).isEmpty())
+                .collect(Collectors.toList());
+            writer.append("<h2>Disproportionately slow tests (")
+                .append(String.format(Locale.ROOT, "%.1fx the median", this.slowFactor)).append(")</h2>\n");
+            this.writeHtmlTable(writer, slowTests);
+
+            writer.append("<h2>All tests</h2>\n");
+            this.writeHtmlTable(writer, new ArrayList<>(this.durations.keySet()));
+
+            writer.append("</body>\n</html>\n");
+        }
+    }
+
+    private void writeHtmlTable(BufferedWriter writer, List<String> tests) throws IOException {
+        writer.append("<table>\n<tr><th>test</th>");
+        for (String column : this.columns) {
+            writer.append("<th>").append(htmlEscape(column)).append(" (s)</th>");
+        }
+        writer.append("</tr>\n");
+
+        for (String test : tests) {
+            final Map<String,Double> byColumn = this.durations.get(test);
+            writer.append("<tr><td>").append(htmlEscape(test)).append("</td>");
+            for (String column : this.columns) {
+                final Double seconds = byColumn.get(column);
+                writer.append(this.isSlow(test, column) ? "<td class=\"s slow\">" : "<td class=\"s\">")
+                    .append(seconds != null ? String.format(Locale.ROOT, "%.3f", seconds) : "")
+                    .append("</td>");
+            }
+            writer.append("</tr>\n");
+        }
+
+        writer.append("</table>\n");
+    }
+
+    static private double max(Map<String,Double> byColumn) {
+        return byColumn.values().stream().mapToDouble(Double::doubleValue).max().orElse(0d);
+    }
+
+    static private String csvEscape(String value) {
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    static private String htmlEscape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.fizzed.blaze.incubating;
+
+import com.fizzed.blaze.util.LineOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class EnvVarsParserTest {
+
+    static private Map<String,String> parse(EnvVarsParser parser, String output) throws IOException {
+        // streamed in small chunks just like the output of a process
+        try (LineOutputStream<EnvVarsParser> lineOutput = new LineOutputStream<>(parser)) {
+            final byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i += 7) {
+                lineOutput.write(Arrays.copyOfRange(bytes, i, Math.min(i + 7, bytes.length)));
+            }
+        }
+        return parser.getEnvVars();
+    }
+
+    @Test
+    void valuesContainingEquals() throws IOException {
+        final Map<String,String> envVars = parse(new EnvVarsParser(),
+            "JAVA_TOOL_OPTIONS=-Dfoo=bar -Dbaz=1\n"
+            + "EMPTY_VALUE_MARKER==\n");
+
+        assertThat(envVars, hasEntry("JAVA_TOOL_OPTIONS", "-Dfoo=bar -Dbaz=1"));
+        assertThat(envVars, hasEntry("EMPTY_VALUE_MARKER", "="));
+    }
+
+    @Test
+    void crlf() throws IOException {
+        final Map<String,String> envVars = parse(new EnvVarsParser(),
+            "ComSpec=C:\\Windows\\system32\\cmd.exe\r\n"
+            + "Path=C:\\Windows;C:\\Windows\\System32\r\n"
+            + "PROCESSOR_ARCHITECTURE=AMD64");
+
+        assertThat(envVars.size(), is(3));
+        assertThat(envVars, hasEntry("ComSpec", "C:\\Windows\\system32\\cmd.exe"));
+        assertThat(envVars, hasEntry("Path", "C:\\Windows;C:\\Windows\\System32"));
+        assertThat(envVars, hasEntry("PROCESSOR_ARCHITECTURE", "AMD64"));
+    }
+
+    @Test
+    void driveVarsSkipped() throws IOException {
+        final Map<String,String> envVars = parse(new EnvVarsParser(),
+            "=C:=C:\\Users\\builder\r\n"
+            + "=ExitCode=00000000\r\n"
+            + "OS=Windows_NT\r\n");
+
+        assertThat(envVars.size(), is(1));
+        assertThat(envVars, hasEntry("OS", "Windows_NT"));
+    }
+
+    @Test
+    void emptyValuesAndLinesSkipped() throws IOException {
+        final Map<String,String> envVars = parse(new EnvVarsParser(),
+            "EMPTY=\r\n"
+            + "\r\n"
+            + "   \r\n"
+            + "NOT A VARIABLE\r\n"
+            + "OS=Windows_NT\r\n");
+
+        assertThat(envVars.size(), is(1));
+        assertThat(envVars, hasEntry("OS", "Windows_NT"));
+    }
+
+    @Test
+    void namesAreCaseInsensitive() throws IOException {
+        final Map<String,String> envVars = parse(new EnvVarsParser(), "Path=C:\\Windows\r\n");
+
+        assertThat(envVars.get("PATH"), is("C:\\Windows"));
+    }
+
+    @Test
+    void baselineMatchedCaseInsensitive() throws IOException {
+        // e.g. System.getenv() or any other case-sensitive map
+        final Map<String,String> baseline = new HashMap<>();
+        baseline.put("PATH", "C:\\Windows");
+        baseline.put("OS", "Windows_NT");
+
+        final Map<String,String> envVars = parse(new EnvVarsParser(baseline),
+            "Path=C:\\Windows\r\n"
+            + "os=Windows_NT\r\n");
+
+        assertThat(envVars.isEmpty(), is(true));
+    }
+
+    @Test
+    void newAndChangedVsBaselineInOnePass() throws IOException {
+        final Map<String,String> baseline = parse(new EnvVarsParser(),
+            "Path=C:\\Windows\r\n"
+            + "OS=Windows_NT\r\n"
+            + "INCLUDE=C:\\old\r\n");
+
+        final Map<String,String> envVars = parse(new EnvVarsParser(baseline),
+            "Path=C:\\VS\\bin;C:\\Windows\r\n"
+            + "OS=Windows_NT\r\n"
+            + "INCLUDE=C:\\old\r\n"
+            + "VCINSTALLDIR=C:\\VS\\VC\\\r\n"
+            + "=C:=C:\\Users\\builder\r\n");
+
+        assertThat(envVars.size(), is(2));
+        // changed values are the baseline value and the new one
+        assertThat(envVars, hasEntry("Path", "C:\\Windows,C:\\VS\\bin;C:\\Windows"));
+        assertThat(envVars, hasEntry("VCINSTALLDIR", "C:\\VS\\VC\\"));
+        assertThat(envVars, not(hasKey("OS")));
+        assertThat(envVars, not(hasKey("INCLUDE")));
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.core.MessageOnlyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BaseBlazeTest {
+
+    @TempDir
+    Path tempDir;
+    BaseBlaze blaze;
+
+    @BeforeEach
+    void bindContext() {
+        TestContexts.bindContext(LoggerFactory.getLogger(BaseBlazeTest.class), this.tempDir);
+        this.blaze = new BaseBlaze();
+    }
+
+    private Path writeFile(String path, String content) throws IOException {
+        final Path file = this.tempDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes());
+        return file;
+    }
+
+    private List<Path> watchProject() throws IOException {
+        this.writeFile("src/main/java/a/Foo.java", "package a; public class Foo {}");
+        this.writeFile("src/main/java/a/Bar.java", "package a; public class Bar {}");
+        this.writeFile("src/main/resources/app.conf", "a = 1");
+        this.writeFile("src/test/java/a/FooTest.java", "package a; class FooTest { Foo foo; }");
+        this.writeFile("src/test/java/a/FooBarTests.java", "package a; class FooBarTests { Foo foo; Bar bar; }");
+        this.writeFile("src/test/java/a/OtherTest.java", "package a; class OtherTest { Foobar foobar; }");
+        return Collections.singletonList(this.tempDir.resolve("src"));
+    }
+
+    @Test
+    void watchAffectedTestsForTestChange() throws IOException {
+        final List<Path> srcDirs = this.watchProject();
+        final Set<Path> changedFiles = new HashSet<>(asList(this.tempDir.resolve("src/test/java/a/OtherTest.java")));
+
+        assertThat(BaseBlaze.watchAffectedTests(srcDirs, changedFiles), contains("OtherTest"));
+    }
+
+    @Test
+    void watchAffectedTestsForMainChange() throws IOException {
+        final List<Path> srcDirs = this.watchProject();
+
+        // only tests referencing the class by its whole name (e.g. not Foobar)
+        assertThat(BaseBlaze.watchAffectedTests(srcDirs, new HashSet<>(asList(this.tempDir.resolve("src/main/java/a/Foo.java")))),
+            contains("FooBarTests", "FooTest"));
+
+        assertThat(BaseBlaze.watchAffectedTests(srcDirs, new HashSet<>(asList(this.tempDir.resolve("src/main/java/a/Bar.java")))),
+            contains("FooBarTests"));
+    }
+
+    @Test
+    void watchAffectedTestsForTransitiveMainChange() throws IOException {
+        final List<Path> srcDirs = this.watchProject();
+        // Foo <- Qux <- Baz, where the tests of Qux & Baz never name Foo
+        this.writeFile("src/main/java/a/Qux.java", "package a; public class Qux { Foo foo; }");
+        this.writeFile("src/main/java/a/Baz.java", "package a; public class Baz { Qux qux; }");
+        this.writeFile("src/test/java/a/QuxTest.java", "package a; class QuxTest { Qux qux; }");
+        this.writeFile("src/test/java/a/BazTest.java", "package a; class BazTest { Baz baz; }");
+
+        assertThat(BaseBlaze.watchAffectedTests(srcDirs, new HashSet<>(asList(this.tempDir.resolve("src/main/java/a/Foo.java")))),
+            contains("BazTest", "FooBarTests", "FooTest", "QuxTest"));
+
+        assertThat(BaseBlaze.watchAffectedTests(srcDirs, new HashSet<>(asList(this.tempDir.resolve("src/main/java/a/Qux.java")))),
+            contains("BazTest", "QuxTest"));
+    }
+
+    @Test
+    void watchAffectedTestsForResourceChangeRunsAll() throws IOException {
+        final List<Path> srcDirs = this.watchProject();
+        final Set<Path> changedFiles = new HashSet<>(asList(
+            this.tempDir.resolve("src/main/java/a/Foo.java"),
+            this.tempDir.resolve("src/main/resources/app.conf")));
+
+        assertThat(BaseBlaze.watchAffectedTests(srcDirs, changedFiles), nullValue());
+    }
+
+    @Test
+    void watchAffectedTestsForUnreferencedChangeRunsAll() throws IOException {
+        final List<Path> srcDirs = this.watchProject();
+        this.writeFile("src/main/java/a/Baz.java", "package a; public class Baz {}");
+
+        assertThat(BaseBlaze.watchAffectedTests(srcDirs, new HashSet<>(asList(this.tempDir.resolve("src/main/java/a/Baz.java")))),
+            nullValue());
+    }
+
+    @Test
+    void findVersion() {
+        final Pattern versionLocator = Pattern.compile("<version>(.*)</version>");
+
+        assertThat(BaseBlaze.findVersion(asList("# Readme", "<version>1.2.3</version>", "<version>4.5.6</version>"), versionLocator),
+            is("1.2.3"));
+        assertThat(BaseBlaze.findVersion(asList("# Readme", "no version here"), versionLocator), nullValue());
+    }
+
+    @Test
+    void updateFileWithVersionIsLiteral() throws IOException {
+        final Path readme = this.writeFile("README.md", "# Readme\n<version>1.2.3</version>\nWorks on 1.2.3 or later\nNot 1x2y3 or 10203\n");
+
+        this.blaze.updateFileWithVersion(readme, "<version>(.*)</version>", "1.3.0");
+
+        // the dots of the version are not regex wildcards
+        assertThat(Files.readAllLines(readme), contains("# Readme", "<version>1.3.0</version>", "Works on 1.3.0 or later", "Not 1x2y3 or 10203"));
+    }
+
+    @Test
+    void updateFileWithVersionNotFound() throws IOException {
+        final Path readme = this.writeFile("README.md", "# Readme\nNo version here\n");
+
+        this.blaze.updateFileWithVersion(readme, "<version>(.*)</version>", "1.3.0");
+
+        assertThat(Files.readAllLines(readme), contains("# Readme", "No version here"));
+    }
+
+    @Test
+    void updateFileWithLatestVersion() throws IOException {
+        final Path readme = this.writeFile("README.md", "<version>1.2.3</version>\n");
+        final BaseBlaze blaze = new BaseBlaze() {
+            @Override
+            protected String detectLatestVersion() {
+                return "2.0.0";
+            }
+        };
+
+        blaze.updateFileWithLatestVersion(readme);
+
+        assertThat(Files.readAllLines(readme), contains("<version>2.0.0</version>"));
+    }
+
+    @Test
+    void waitForRetriesUntilConfirmed() {
+        final int[] attempts = new int[1];
+
+        this.blaze.waitFor("test", 5, 1L, () -> ++attempts[0] >= 3);
+
+        assertThat(attempts[0], is(3));
+    }
+
+    @Test
+    void waitForDoesNotSleepAfterLastAttempt() {
+        final int[] attempts = new int[1];
+        final long start = System.currentTimeMillis();
+
+        assertThrows(MessageOnlyException.class, () -> this.blaze.waitFor("test", 1, 60000L, () -> ++attempts[0] < 0));
+
+        assertThat(attempts[0], is(1));
+        assertThat(System.currentTimeMillis() - start, lessThan(30000L));
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.core.ContextHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BlockingExecutorTest {
+
+    Context context;
+
+    @BeforeEach
+    void bindContext() {
+        this.context = TestContexts.bindContext(LoggerFactory.getLogger(BlockingExecutorTest.class), null);
+    }
+
+    @Test
+    void mapPreservesOrder() throws Exception {
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(i);
+        }
+
+        try (BlockingExecutor executor = new BlockingExecutor(4)) {
+            // the first items finish last
+            final List<Integer> results = executor.map(items, item -> {
+                Thread.sleep(50 - item);
+                return item * 10;
+            });
+
+            for (int i = 0; i < 50; i++) {
+                assertThat(results.get(i), is(i * 10));
+            }
+        }
+    }
+
+    @Test
+    void mapThrowsFirstFailureInItemOrder() throws Exception {
+        try (BlockingExecutor executor = new BlockingExecutor(4)) {
+            // item 4 fails first, but item 2 comes first
+            final IllegalStateException e = assertThrows(IllegalStateException.class, () -> executor.map(asList(1, 2, 3, 4, 5), item -> {
+                if (item == 2) {
+                    Thread.sleep(200L);
+                    throw new IllegalStateException("failed " + item);
+                } else if (item == 4) {
+                    throw new IllegalStateException("failed " + item);
+                }
+                return item;
+            }));
+
+            assertThat(e.getMessage(), is("failed 2"));
+        }
+    }
+
+    @Test
+    void mapThrowsCheckedFailureUnwrapped() throws Exception {
+        try (BlockingExecutor executor = new BlockingExecutor(4)) {
+            final IOException e = assertThrows(IOException.class, () -> executor.map(asList(1, 2, 3), item -> {
+                if (item == 3) {
+                    throw new IOException("failed " + item);
+                }
+                return item;
+            }));
+
+            assertThat(e.getMessage(), is("failed 3"));
+        }
+    }
+
+    @Test
+    void mapBindsContext() throws Exception {
+        // a single platform thread (unless virtual) is reused for every task
+        try (BlockingExecutor executor = new BlockingExecutor(1)) {
+            final List<Context> contexts = executor.map(asList(1, 2, 3, 4, 5), item -> ContextHolder.get());
+
+            for (Context c : contexts) {
+                assertThat(c, sameInstance(this.context));
+            }
+        }
+    }
+
+    @Test
+    void closeWaitsForTasks() {
+        final AtomicBoolean finished = new AtomicBoolean();
+
+        try (BlockingExecutor executor = new BlockingExecutor(4)) {
+            executor.submit(() -> {
+                Thread.sleep(100L);
+                finished.set(true);
+                return null;
+            });
+        }
+
+        assertThat(finished.get(), is(true));
+    }
+
+    @Test
+    void closeRestoresInterrupt() {
+        final long start = System.currentTimeMillis();
+
+        try (BlockingExecutor executor = new BlockingExecutor(4)) {
+            executor.submit(() -> {
+                Thread.sleep(60000L);
+                return null;
+            });
+            Thread.currentThread().interrupt();
+        }
+
+        // clears the flag for the next tests as well
+        assertThat(Thread.interrupted(), is(true));
+        assertThat(System.currentTimeMillis() - start, lessThan(30000L));
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.util.LineOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+
+class JfrSummaryTest {
+
+    private JfrSummary summarize(String resource) throws IOException {
+        final JfrSummary summary = new JfrSummary();
+        // streamed in chunks just like the output of "jfr print" is
+        try (InputStream input = JfrSummaryTest.class.getResourceAsStream(resource);
+             LineOutputStream<JfrSummary> output = new LineOutputStream<>(summary)) {
+            final byte[] buf = new byte[100];
+            int read;
+            while ((read = input.read(buf)) > 0) {
+                output.write(buf, 0, read);
+            }
+        }
+        return summary;
+    }
+
+    @Test
+    void process() throws IOException {
+        final JfrSummary summary = this.summarize("/jfr-print.txt");
+
+        assertThat(summary.getCpuSampleCount(), is(2L));
+        // only the top frame of a stack trace counts
+        assertThat(summary.getCpuSamples(), hasEntry("java.lang.invoke.MethodType.toMethodDescriptorString()", 1L));
+        assertThat(summary.getCpuSamples(), hasEntry("java.lang.StringLatin1.hashCode(byte[])", 1L));
+
+        // 18.7 MB + 520.5 kB + 513.6 kB
+        assertThat(summary.getAllocationByteCount(), is(19608371L + 532992L + 525926L));
+        assertThat(summary.topAllocationMethods(1), contains("java.nio.HeapByteBuffer.<init>(int, int, MemorySegmentProxy)"));
+        assertThat(summary.getAllocationBytes(), hasEntry("Burn.main(String[])", 532992L + 525926L));
+
+        assertThat(summary.getGcCount(), is(2L));
+        assertThat(summary.getGcPauseTotalMillis(), closeTo(23.0d, 0.001d));
+        assertThat(summary.getGcPauseMaxMillis(), closeTo(11.6d, 0.001d));
+    }
+
+    @Test
+    void processTlabAllocations() throws IOException {
+        // jdk 11-15 have no jdk.ObjectAllocationSample events
+        final JfrSummary summary = this.summarize("/jfr-print-jdk11.txt");
+
+        // 2 new TLABs of 514.3 kB and 1.0 kB outside of one
+        assertThat(summary.getAllocationByteCount(), is(2L * 526643L + 1024L));
+        assertThat(summary.getAllocationBytes(), hasEntry("Burn.main(String[])", 2L * 526643L + 1024L));
+    }
+
+    @Test
+    void merge() throws IOException {
+        final JfrSummary summary = this.summarize("/jfr-print.txt");
+        summary.merge(this.summarize("/jfr-print.txt"));
+
+        assertThat(summary.getCpuSampleCount(), is(4L));
+        assertThat(summary.getAllocationBytes(), hasEntry("Burn.main(String[])", 2L * (532992L + 525926L)));
+        assertThat(summary.getGcCount(), is(4L));
+        assertThat(summary.getGcPauseMaxMillis(), closeTo(11.6d, 0.001d));
+    }
+
+    @Test
+    void parseBytes() {
+        assertThat(JfrSummary.parseBytes("1 byte"), is(1L));
+        assertThat(JfrSummary.parseBytes("528 bytes"), is(528L));
+        assertThat(JfrSummary.parseBytes("1.5 kB"), is(1536L));
+        assertThat(JfrSummary.parseBytes("2 MB"), is(2097152L));
+        assertThat(JfrSummary.parseBytes("1 GB"), is(1073741824L));
+        assertThat(JfrSummary.parseBytes("1,024 bytes"), is(1024L));
+        assertThat(JfrSummary.parseBytes("1 TB"), is(0L));
+        assertThat(JfrSummary.parseBytes("N/A"), is(0L));
+    }
+
+    @Test
+    void parseMillis() {
+        assertThat(JfrSummary.parseMillis("500 ns"), closeTo(0.0005d, 0.0000001d));
+        assertThat(JfrSummary.parseMillis("12.5 us"), closeTo(0.0125d, 0.0000001d));
+        assertThat(JfrSummary.parseMillis("2.34 ms"), closeTo(2.34d, 0.0000001d));
+        assertThat(JfrSummary.parseMillis("1.02 s"), closeTo(1020d, 0.0000001d));
+        assertThat(JfrSummary.parseMillis("1 h"), is(0d));
+        assertThat(JfrSummary.parseMillis("N/A"), is(0d));
+    }
+
+}
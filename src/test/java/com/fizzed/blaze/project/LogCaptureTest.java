@@ -0,0 +1,167 @@
+package com.fizzed.blaze.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogCaptureTest {
+
+    @TempDir
+    Path tempDir;
+
+    static private void write(LogCapture logCapture, String s) throws IOException {
+        logCapture.write(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> segmentNames(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.list(dir)) {
+            return paths
+                .map(p -> p.getFileName().toString())
+                .filter(name -> name.endsWith(".gz"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void indexEntries() throws IOException {
+        final Path dir = this.tempDir.resolve("linux-x64");
+        try (LogCapture logCapture = new LogCapture(dir, 1024L*1024L, 8, 16)) {
+            write(logCapture, "[INFO] Building foo 1.0\n");
+            write(logCapture, "[INFO] Tests run: 2, Failures: 0\n[ERROR] Tests run: 3, Fail");
+            // a line split across writes
+            write(logCapture, "ures: 1\n");
+            write(logCapture, "[INFO] Running a.ExceptionMapperTest\n");
+            write(logCapture, "java.lang.IllegalStateException: expected by the test\n");
+            write(logCapture, "\tat a.Foo.bar(Foo.java:1)\n");
+            write(logCapture, "Caused by: java.io.IOException: disk full\n");
+            write(logCapture, "[INFO] Tests run: 4, Failures: 0, Errors: 1, Skipped: 0 <<< FAILURE! - in a.BarTest\n");
+            write(logCapture, "[INFO] BUILD FAILURE");
+        }
+
+        final List<LogCapture.IndexEntry> entries = LogCapture.readIndex(dir);
+
+        assertThat(entries, hasSize(4));
+        assertThat(entries.get(0).getSegment(), is(dir.resolve("output.00001.log.gz")));
+        assertThat(entries.get(0).getLineNumber(), is(3L));
+        assertThat(entries.get(0).getLine(), is("[ERROR] Tests run: 3, Failures: 1"));
+        // lines merely mentioning an exception are not failures
+        assertThat(entries.get(1).getLineNumber(), is(7L));
+        assertThat(entries.get(1).getLine(), is("Caused by: java.io.IOException: disk full"));
+        assertThat(entries.get(2).getLineNumber(), is(8L));
+        assertThat(entries.get(2).getLine(), is("[INFO] Tests run: 4, Failures: 0, Errors: 1, Skipped: 0 <<< FAILURE! - in a.BarTest"));
+        // the last line doesn't need to be terminated
+        assertThat(entries.get(3).getLineNumber(), is(9L));
+        assertThat(entries.get(3).getLine(), is("[INFO] BUILD FAILURE"));
+    }
+
+    @Test
+    void readContext() throws IOException {
+        final Path dir = this.tempDir.resolve("linux-x64");
+        try (LogCapture logCapture = new LogCapture(dir, 1024L*1024L, 8, 16)) {
+            for (int i = 1; i <= 20; i++) {
+                write(logCapture, (i == 10 ? "[ERROR] line " : "[INFO] line ") + i + "\n");
+            }
+        }
+
+        final List<LogCapture.IndexEntry> entries = LogCapture.readIndex(dir);
+        assertThat(entries, hasSize(1));
+
+        assertThat(LogCapture.readContext(entries.get(0), 2),
+            contains("[INFO] line 8", "[INFO] line 9", "[ERROR] line 10", "[INFO] line 11", "[INFO] line 12"));
+        assertThat(LogCapture.readContext(entries.get(0), 0), contains("[ERROR] line 10"));
+    }
+
+    @Test
+    void rotation() throws IOException {
+        final Path dir = this.tempDir.resolve("linux-x64");
+        // every line is 20 bytes, so 5 lines per segment
+        try (LogCapture logCapture = new LogCapture(dir, 100L, 3, 4)) {
+            for (int i = 1; i <= 30; i++) {
+                write(logCapture, String.format(i % 5 == 0 ? "[ERROR] line %010d\n" : "[INFO]  line %010d\n", i));
+            }
+        }
+
+        // only the last 3 of the 6 segments are kept
+        assertThat(this.segmentNames(dir), contains("output.00004.log.gz", "output.00005.log.gz", "output.00006.log.gz"));
+
+        // the index entries of the dropped segments are removed too, line numbers are per segment
+        assertThat(Files.readAllLines(dir.resolve(LogCapture.INDEX_FILE)), hasSize(3));
+        final List<LogCapture.IndexEntry> entries = LogCapture.readIndex(dir);
+        assertThat(entries, hasSize(3));
+        assertThat(entries.get(0).getSegment(), is(dir.resolve("output.00004.log.gz")));
+        assertThat(entries.get(0).getLineNumber(), is(5L));
+        assertThat(entries.get(0).getLine(), is("[ERROR] line 0000000020"));
+        assertThat(entries.get(2).getSegment(), is(dir.resolve("output.00006.log.gz")));
+        assertThat(entries.get(2).getLine(), is("[ERROR] line 0000000030"));
+
+        // which never needs to look past its own segment
+        assertThat(LogCapture.readContext(entries.get(1), 1),
+            contains("[INFO]  line 0000000024", "[ERROR] line 0000000025"));
+    }
+
+    @Test
+    void startsFromScratch() throws IOException {
+        final Path dir = this.tempDir.resolve("linux-x64");
+        try (LogCapture logCapture = new LogCapture(dir, 1024L, 8, 4)) {
+            write(logCapture, "[ERROR] first run\n");
+        }
+        try (LogCapture logCapture = new LogCapture(dir, 1024L, 8, 4)) {
+            write(logCapture, "[INFO] second run\n");
+        }
+
+        assertThat(LogCapture.readIndex(dir), is(empty()));
+        assertThat(this.segmentNames(dir), contains("output.00001.log.gz"));
+    }
+
+    @Test
+    void consoleSummary() throws IOException {
+        final ByteArrayOutputStream console = new ByteArrayOutputStream();
+        final Path dir = this.tempDir.resolve("linux-x64");
+        try (LogCapture logCapture = new LogCapture(dir, 1024L, 8, 4).console(console, Pattern.compile("Tests run:|BUILD"))) {
+            write(logCapture, "[INFO] Downloading foo.jar\n[INFO] Tests run: 2, Failures: 0\n");
+            write(logCapture, "[INFO] Downloading bar.jar\n[INFO] BUILD SUCCESS");
+        }
+
+        assertThat(new String(console.toByteArray(), StandardCharsets.UTF_8),
+            is("[linux-x64] [INFO] Tests run: 2, Failures: 0\n[linux-x64] [INFO] BUILD SUCCESS\n"));
+    }
+
+    @Test
+    void consoleFull() throws IOException {
+        final ByteArrayOutputStream console = new ByteArrayOutputStream();
+        final Path dir = this.tempDir.resolve("linux-x64");
+        try (LogCapture logCapture = new LogCapture(dir, 1024L, 8, 4).console(console, null)) {
+            write(logCapture, "[INFO] Downloading foo.jar\n[INFO] Tests run: 2, Failures: 0\n");
+            write(logCapture, "[INFO] BUILD SUCCESS");
+        }
+
+        assertThat(new String(console.toByteArray(), StandardCharsets.UTF_8),
+            is("[INFO] Downloading foo.jar\n[INFO] Tests run: 2, Failures: 0\n[INFO] BUILD SUCCESS"));
+    }
+
+    @Test
+    void writeAfterClose() throws IOException {
+        final LogCapture logCapture = new LogCapture(this.tempDir.resolve("linux-x64"), 1024L, 8, 4);
+        logCapture.close();
+
+        assertThrows(IOException.class, () -> write(logCapture, "[INFO] too late\n"));
+    }
+
+}
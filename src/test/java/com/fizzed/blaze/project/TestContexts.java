@@ -0,0 +1,31 @@
+package com.fizzed.blaze.project;
+
+import com.fizzed.blaze.Config;
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.core.ContextHolder;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Contexts for running the project helpers outside of a blaze script (e.g. tests and benchmarks).
+ */
+class TestContexts {
+
+    /**
+     * Binds a mocked context to the current thread (what a BaseBlaze needs to be constructed), whose base dir is a
+     * "blaze" dir inside the project dir, just like a real project.
+     */
+    static Context bindContext(Logger logger, Path projectDir) {
+        final Context context = mock(Context.class);
+        when(context.logger()).thenReturn(logger);
+        when(context.config()).thenReturn(mock(Config.class));
+        when(context.withBaseDir("..")).thenReturn(projectDir);
+        ContextHolder.set(context);
+        return context;
+    }
+
+}
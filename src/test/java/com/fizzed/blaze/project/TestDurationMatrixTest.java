@@ -0,0 +1,130 @@
+package com.fizzed.blaze.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+
+class TestDurationMatrixTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void isSlowWithTwoColumns() {
+        final TestDurationMatrix matrix = new TestDurationMatrix()
+            .add("a.FooTest.foo", "jdk-21", 0.2d)
+            .add("a.FooTest.foo", "jdk-8", 5.0d)
+            .add("a.FooTest.bar", "jdk-21", 1.0d)
+            .add("a.FooTest.bar", "jdk-8", 1.1d);
+
+        assertThat(matrix.isSlow("a.FooTest.foo", "jdk-8"), is(true));
+        assertThat(matrix.isSlow("a.FooTest.foo", "jdk-21"), is(false));
+        assertThat(matrix.isSlow("a.FooTest.bar", "jdk-8"), is(false));
+        assertThat(matrix.isSlow("a.FooTest.bar", "jdk-21"), is(false));
+    }
+
+    @Test
+    void isSlowNeedsMoreThanOneColumn() {
+        final TestDurationMatrix matrix = new TestDurationMatrix()
+            .add("a.FooTest.foo", "jdk-8", 5.0d)
+            .add("a.FooTest.bar", "jdk-21", 1.0d);
+
+        assertThat(matrix.isSlow("a.FooTest.foo", "jdk-8"), is(false));
+        assertThat(matrix.isSlow("a.FooTest.foo", "jdk-21"), is(false));
+        assertThat(matrix.isSlow("a.FooTest.missing", "jdk-8"), is(false));
+    }
+
+    @Test
+    void slowColumns() {
+        final TestDurationMatrix matrix = new TestDurationMatrix()
+            .add("a.FooTest.foo", "jdk-21", 1.0d)
+            .add("a.FooTest.foo", "jdk-17", 1.2d)
+            .add("a.FooTest.foo", "jdk-11", 4.0d)
+            .add("a.FooTest.foo", "jdk-8", 0.8d)
+            // very fast tests only count once they're slowMinSeconds slower
+            .add("a.FooTest.fast", "jdk-21", 0.01d)
+            .add("a.FooTest.fast", "jdk-17", 0.01d)
+            .add("a.FooTest.fast", "jdk-11", 0.05d)
+            .add("a.FooTest.fast", "jdk-8", 0.01d);
+
+        assertThat(matrix.slowColumns("a.FooTest.foo"), contains("jdk-11"));
+        assertThat(matrix.slowColumns("a.FooTest.fast"), is(empty()));
+    }
+
+    @Test
+    void writeCsv() throws IOException {
+        final TestDurationMatrix matrix = new TestDurationMatrix()
+            .add("a.FooTest.foo", "jdk-21", 0.2d)
+            .add("a.FooTest.foo", "jdk-8", 5.0d)
+            .add("a.FooTest.bar(int, String)", "jdk-21", 1.0d);
+
+        final Path file = this.tempDir.resolve("test-durations.csv");
+
+        // a locale with a decimal comma must not break the columns
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            matrix.writeCsv(file);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        assertThat(Files.readAllLines(file), contains(
+            "test,jdk-21,jdk-8,slow_on",
+            "\"a.FooTest.bar(int, String)\",1.000,,",
+            "a.FooTest.foo,0.200,5.000,jdk-8"));
+    }
+
+    @Test
+    void addSurefireReports() throws IOException {
+        final Path reportsDir = this.tempDir.resolve("target/surefire-reports");
+        Files.createDirectories(reportsDir);
+        Files.write(reportsDir.resolve("TEST-a.FooTest.xml"), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<testsuite name=\"a.FooTest\" time=\"1,234.5\" tests=\"2\">\n"
+            + "  <testcase name=\"foo\" classname=\"a.FooTest\" time=\"1,234.5\"/>\n"
+            + "  <testcase name=\"bar\" classname=\"a.FooTest\" time=\"0.25\"/>\n"
+            + "</testsuite>\n").getBytes());
+        // ignored, not a report
+        Files.write(reportsDir.resolve("a.FooTest.txt"), "Tests run: 2".getBytes());
+
+        final TestDurationMatrix matrix = new TestDurationMatrix();
+
+        assertThat(matrix.addSurefireReports("jdk-21", this.tempDir), is(1));
+        assertThat(matrix.getColumns(), contains("jdk-21"));
+        assertThat(matrix.getDurations().get("a.FooTest.foo"), hasEntry("jdk-21", 1234.5d));
+        assertThat(matrix.getDurations().get("a.FooTest.bar"), hasEntry("jdk-21", 0.25d));
+    }
+
+    @Test
+    void addSurefireReportsSkipsTruncated() throws IOException {
+        final Path reportsDir = this.tempDir.resolve("target/surefire-reports");
+        Files.createDirectories(reportsDir);
+        Files.write(reportsDir.resolve("TEST-a.FooTest.xml"), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<testsuite name=\"a.FooTest\" tests=\"1\">\n"
+            + "  <testcase name=\"foo\" classname=\"a.FooTest\" time=\"0.5\"/>\n"
+            + "</testsuite>\n").getBytes());
+        // e.g. the fork crashed while writing it
+        Files.write(reportsDir.resolve("TEST-a.BarTest.xml"), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<testsuite name=\"a.BarTest\" tests=\"2\">\n"
+            + "  <testcase name=\"bar\" classname=\"a.BarTest\" time=\"0.5\"/>\n"
+            + "  <testcase name=\"ba").getBytes());
+
+        final TestDurationMatrix matrix = new TestDurationMatrix();
+
+        assertThat(matrix.addSurefireReports("jdk-21", this.tempDir), is(1));
+        assertThat(matrix.getSkippedReports(), contains(reportsDir.resolve("TEST-a.BarTest.xml")));
+        // nothing from the truncated report is added
+        assertThat(matrix.getDurations().keySet(), contains("a.FooTest.foo"));
+    }
+
+}